@@ -0,0 +1,82 @@
+/** vẽ chủ động: Canvas + BufferStrategy lật trang trên thread riêng*/
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vòng lặp vẽ chủ động cho GamePanel (bật bằng -Darkanoid.render=active).
+ * Dùng lại đúng code vẽ của paintComponent thông qua Scene; khoá frameLock
+ * trong lúc vẽ để không đọc state giữa chừng khi EDT đang update.
+ */
+public final class ActiveRenderer implements Runnable {
+
+    /** Nguồn vẽ: GamePanel.renderFrame(...) */
+    public interface Scene { void renderFrame(Graphics2D g2); }
+
+    private final Canvas canvas;
+    private final Scene scene;
+    private final Object frameLock;
+    private final long periodNanos;
+    private final FrameStats stats = new FrameStats("active");
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ActiveRenderer(Canvas canvas, Scene scene, Object frameLock, int targetFps) {
+        this.canvas = canvas;
+        this.scene = scene;
+        this.frameLock = frameLock;
+        this.periodNanos = 1_000_000_000L / Math.max(1, targetFps);
+    }
+
+    /** Canvas phải đã hiển thị (displayable) trước khi gọi. */
+    public void start() {
+        if (running) return;
+        canvas.setIgnoreRepaint(true);
+        canvas.createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this, "active-render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) { try { thread.join(300); } catch (InterruptedException ignored) {} }
+    }
+
+    public FrameStats stats() { return stats; }
+
+    @Override public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            BufferStrategy bs = canvas.getBufferStrategy();
+            if (bs == null) break;
+            do {
+                do {
+                    Graphics2D g2 = (Graphics2D) bs.getDrawGraphics();
+                    try {
+                        synchronized (frameLock) { scene.renderFrame(g2); }
+                    } finally {
+                        g2.dispose();
+                    }
+                } while (bs.contentsRestored());
+                bs.show();
+            } while (bs.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+            stats.frameShown(System.nanoTime());
+
+            // giữ nhịp: ngủ tới hạn khung kế; trễ trọn khung nào thì tính là rớt khung đó
+            next += periodNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                stats.dropped(-wait / periodNanos);
+                next = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/** gói tài nguyên 1 file: index + dữ liệu căn lề, đọc qua memory-map*/
+package game;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Định dạng bundle (big-endian):
+ * <pre>
+ *   int   magic 'ARKB'
+ *   int   version
+ *   int   count
+ *   count × { short nameLen; byte[nameLen] name (UTF-8); long offset; int length }
+ *   dữ liệu: mỗi entry bắt đầu ở offset chia hết cho ALIGN
+ * </pre>
+ * Đọc: 1 lần open + 1 lần map cả file; mỗi entry là 1 slice của vùng map (không copy),
+ * decoder đọc thẳng từ đó qua stream().
+ */
+public final class AssetBundle {
+    static final int MAGIC = 0x41524B42; // "ARKB"
+    static final int VERSION = 1;
+    static final int ALIGN = 16;
+
+    private final File file;
+    private final MappedByteBuffer data;
+    private final Map<String, long[]> index; // tên → {offset, length}
+
+    private AssetBundle(File file, MappedByteBuffer data, Map<String, long[]> index) {
+        this.file = file; this.data = data; this.index = index;
+    }
+
+    /** Map file bundle và đọc index. Ném IOException nếu sai định dạng. */
+    public static AssetBundle open(File f) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // vùng map vẫn sống sau khi đóng channel
+        }
+        buf.order(ByteOrder.BIG_ENDIAN);
+        if (buf.remaining() < 12 || buf.getInt(0) != MAGIC) throw new IOException("not an asset bundle: " + f);
+        if (buf.getInt(4) != VERSION) throw new IOException("unsupported bundle version " + buf.getInt(4) + ": " + f);
+        int count = buf.getInt(8);
+        Map<String, long[]> index = new HashMap<>(count * 2);
+        ByteBuffer in = buf.duplicate().position(12);
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            long off = in.getLong();
+            int len = in.getInt();
+            if (off < 0 || off + len > buf.capacity()) throw new IOException("corrupt entry " + i + " in " + f);
+            index.put(new String(name, StandardCharsets.UTF_8), new long[]{off, len});
+        }
+        return new AssetBundle(f, buf, index);
+    }
+
+    public File file() { return file; }
+    public int size() { return index.size(); }
+    public Set<String> names() { return Collections.unmodifiableSet(index.keySet()); }
+    public boolean contains(String name) { return index.containsKey(name); }
+
+    /** Slice chỉ-đọc trỏ vào vùng map (không copy); null nếu không có. */
+    public ByteBuffer slice(String name) {
+        long[] e = index.get(name);
+        if (e == null) return null;
+        return data.slice((int) e[0], (int) e[1]).asReadOnlyBuffer();
+    }
+
+    /** InputStream đọc thẳng từ slice (cho ImageIO / AudioSystem / reader). */
+    public InputStream stream(String name) throws FileNotFoundException {
+        ByteBuffer b = slice(name);
+        if (b == null) throw new FileNotFoundException("not in bundle: " + name);
+        return new BufferStream(b);
+    }
+
+    /** Ghi bundle: entries theo thứ tự tên (ổn định giữa các lần pack). */
+    public static void write(Map<String, File> files, File out) throws IOException {
+        List<String> names = new ArrayList<>(files.keySet());
+        Collections.sort(names);
+        byte[][] nameBytes = new byte[names.size()][];
+        long headerLen = 12;
+        for (int i = 0; i < names.size(); i++) {
+            nameBytes[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+            if (nameBytes[i].length > 0xFFFF) throw new IOException("name too long: " + names.get(i));
+            headerLen += 2 + nameBytes[i].length + 8 + 4;
+        }
+        long[] offs = new long[names.size()];
+        long pos = align(headerLen);
+        for (int i = 0; i < names.size(); i++) {
+            offs[i] = pos;
+            pos = align(pos + files.get(names.get(i)).length());
+        }
+        if (pos > Integer.MAX_VALUE) throw new IOException("bundle larger than 2 GB");
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out), 1 << 16))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                dos.writeShort(nameBytes[i].length);
+                dos.write(nameBytes[i]);
+                dos.writeLong(offs[i]);
+                dos.writeInt((int) files.get(names.get(i)).length());
+            }
+            long written = headerLen;
+            for (int i = 0; i < names.size(); i++) {
+                for (; written < offs[i]; written++) dos.write(0);
+                byte[] bytes = Files.readAllBytes(files.get(names.get(i)).toPath());
+                dos.write(bytes);
+                written += bytes.length;
+            }
+        }
+    }
+
+    private static long align(long p) { return (p + ALIGN - 1) / ALIGN * ALIGN; }
+
+    /** InputStream trên ByteBuffer (không copy sang heap trước). */
+    private static final class BufferStream extends InputStream {
+        private final ByteBuffer b;
+        private int mark;
+        BufferStream(ByteBuffer b) { this.b = b; }
+        @Override public int read() { return b.hasRemaining() ? b.get() & 0xFF : -1; }
+        @Override public int read(byte[] dst, int off, int len) {
+            if (len == 0) return 0;
+            if (!b.hasRemaining()) return -1;
+            int n = Math.min(len, b.remaining());
+            b.get(dst, off, n);
+            return n;
+        }
+        @Override public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, b.remaining()));
+            b.position(b.position() + k);
+            return k;
+        }
+        @Override public int available() { return b.remaining(); }
+        @Override public boolean markSupported() { return true; }
+        @Override public synchronized void mark(int limit) { mark = b.position(); }
+        @Override public synchronized void reset() { b.position(mark); }
+    }
+}
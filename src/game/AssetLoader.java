@@ -2,8 +2,7 @@
 package game;
 
 import javax.imageio.ImageIO;
-import javax.sound.sampled.*;
-import java.awt.Image;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -12,11 +11,14 @@ import java.util.*;
 /**
  * AssetLoader: load ảnh, text và nhạc.
  * - Ảnh/Text: ưu tiên classpath, fallback đọc từ filesystem (src/, src/resources, resources, ...).
- * - Nhạc: ưu tiên Java Sound Clip (WAV/AIFF/AU, và MP3 nếu đã thêm mp3spi + tritonus_share).
- *   Nếu không mở được MP3 bằng Clip, fallback sang JLayer (jl1.0.1.jar).
+ * - Nhạc: stream qua SourceDataLine (WAV/AIFF/AU, và MP3 nếu đã thêm mp3spi + tritonus_share),
+ *   decode dần khi phát. Nếu không mở được, fallback sang JLayer (jl1.0.1.jar).
  */
 public final class AssetLoader {
-    private static final Map<String, BufferedImage> IMG_CACHE = new HashMap<>();
+    /** Budget cache ảnh (MB), chỉnh bằng -Darkanoid.imageCacheMB=N. */
+    private static final long IMAGE_CACHE_MB = Long.getLong("arkanoid.imageCacheMB", 48);
+    // key: "path" (ảnh gốc) hoặc "path@WxH" (ảnh đã scale); preloader ghi từ nhiều thread
+    private static final ImageCache IMG_CACHE = new ImageCache(IMAGE_CACHE_MB * 1024 * 1024);
     private AssetLoader() {}
 
     // ========================== path utils ==========================
@@ -35,44 +37,21 @@ public final class AssetLoader {
     }
 
     // ========================== generic open ==========================
-    private static InputStream open(String resPath) throws IOException {
+    /**
+     * Mở resource theo tên logic: tra ResourceManifest (dựng 1 lần) thay vì dò classpath + 6 gốc thư mục
+     * mỗi lần gọi. Đường dẫn tuyệt đối thì mở thẳng.
+     */
+    static InputStream open(String resPath) throws IOException {
         String rp = norm(resPath);
+        if (isAbsolutePath(resPath)) return new FileInputStream(resPath);
+        ResourceManifest.Location loc = ResourceManifest.get().find(rp);
+        if (loc == null) throw new FileNotFoundException("Resource not found: " + rp);
+        return loc.open();
+    }
 
-        // 1) classpath trước
-        InputStream in = AssetLoader.class.getClassLoader().getResourceAsStream(rp);
-        if (in != null) return in;
-
-        // 2) nếu người dùng truyền đường dẫn tuyệt đối / tương đối hiện hành → thử trực tiếp
-        File direct = new File(rp);
-        if (direct.exists() && direct.isFile()) {
-            return new FileInputStream(direct);
-        }
-
-        // 3) thử các gốc filesystem phổ biến
-        //    Ưu tiên "" và "." để chạy được khi working dir = root project
-        String[] roots = {
-                "", ".",
-                "src/",
-                "src/resources/",
-                "resources/",
-                "src/main/resources/"
-        };
-        for (String root : roots) {
-            File f = new File(root + rp);
-            if (f.exists() && f.isFile()) {
-                return new FileInputStream(f);
-            }
-        }
-
-        // 4) Nếu vẫn không có, in cảnh báo đường dẫn đã thử (giúp debug)
-        StringBuilder tried = new StringBuilder();
-        tried.append("classpath:/").append(rp).append('\n');
-        tried.append(rp).append('\n');
-        for (String root : roots) tried.append(root).append(rp).append('\n');
-
-        throw new FileNotFoundException(
-                "Resource not found: " + resPath + "\nTried:\n" + tried
-        );
+    /** Resource có tồn tại không (tra manifest, không đụng filesystem). */
+    public static boolean exists(String resPath) {
+        return ResourceManifest.get().contains(norm(resPath));
     }
 
     private static boolean existsFile(String absPath) {
@@ -85,10 +64,15 @@ public final class AssetLoader {
         String key = norm(resPath);
         BufferedImage cached = IMG_CACHE.get(key);
         if (cached != null) return cached;
+        BufferedImage img = decode(key);
+        IMG_CACHE.put(key, img);
+        return img;
+    }
+
+    private static BufferedImage decode(String key) {
         try (InputStream in = open(key)) {
             BufferedImage img = ImageIO.read(in);
             if (img == null) throw new IOException("ImageIO.read returned null for: " + key);
-            IMG_CACHE.put(key, img);
             return img;
         } catch (IOException e) {
             throw new UncheckedIOException("load image fail: " + key, e);
@@ -111,9 +95,79 @@ public final class AssetLoader {
         }
     }
 
-    public static Image scaled(String resPath, int w, int h) {
-        BufferedImage img = image(resPath);
-        return img.getScaledInstance(w, h, Image.SCALE_SMOOTH);
+    /**
+     * Ảnh đã scale sẵn về w×h (vẽ xong ngay, không lazy như getScaledInstance), cache theo (path, w, h).
+     * Ảnh gốc chỉ dùng tạm để scale (trừ khi đã có trong cache) → nền full-size không nằm lại trong RAM.
+     */
+    public static BufferedImage scaled(String resPath, int w, int h) {
+        String key = scaledKey(resPath, w, h);
+        BufferedImage cached = IMG_CACHE.get(key);
+        if (cached != null) return cached;
+        String src = norm(resPath);
+        BufferedImage full = IMG_CACHE.peek(src);
+        BufferedImage out = resize(full != null ? full : decode(src), w, h);
+        IMG_CACHE.put(key, out);
+        return out;
+    }
+
+    private static String scaledKey(String resPath, int w, int h) { return norm(resPath) + "@" + w + "x" + h; }
+
+    // ========================== scene pin/release ==========================
+    /** Giữ ảnh gốc resPath trong cache tới khi scene gọi releaseScene. */
+    public static void pinImage(String scene, String resPath) { IMG_CACHE.pin(scene, norm(resPath)); }
+    /** Giữ ảnh scaled(resPath, w, h) trong cache tới khi scene gọi releaseScene. */
+    public static void pinScaled(String scene, String resPath, int w, int h) { IMG_CACHE.pin(scene, scaledKey(resPath, w, h)); }
+    /** Thả mọi ảnh scene đã ghim (ảnh vẫn ở cache cho tới khi bị LRU đẩy ra). */
+    public static void releaseScene(String scene) { IMG_CACHE.release(scene); }
+    /** Cache ảnh dùng chung (đọc hit/miss/byte để chỉnh budget). */
+    public static ImageCache imageCache() { return IMG_CACHE; }
+
+    /**
+     * Scale nhanh mà vẫn mịn: thu nhỏ mỗi bước tối đa 1/2 bằng bilinear (như SCALE_SMOOTH nhưng rẻ hơn nhiều),
+     * bước cuối về đúng w×h. Phóng to thì 1 bước bilinear.
+     */
+    public static BufferedImage resize(BufferedImage src, int w, int h) {
+        w = Math.max(1, w); h = Math.max(1, h);
+        boolean alpha = src.getColorModel().hasAlpha();
+        BufferedImage cur = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        do {
+            cw = (cw / 2 >= w) ? cw / 2 : w;
+            ch = (ch / 2 >= h) ? ch / 2 : h;
+            BufferedImage next = compatibleImage(cw, ch, alpha);
+            Graphics2D g2 = next.createGraphics();
+            try {
+                if (alpha) g2.setComposite(AlphaComposite.Src);
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g2.drawImage(cur, 0, 0, cw, ch, null);
+            } finally {
+                g2.dispose();
+            }
+            cur = next;
+        } while (cw != w || ch != h);
+        return cur;
+    }
+
+    /** Ảnh tương thích màn hình (vẽ nhanh nhất); headless thì dùng INT_ARGB/INT_RGB. */
+    public static BufferedImage compatibleImage(int w, int h, boolean translucent) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, translucent ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+        }
+        return new BufferedImage(w, h, translucent ? BufferedImage.TYPE_INT_ARGB_PRE : BufferedImage.TYPE_INT_RGB);
+    }
+
+    /** Image bất kỳ → BufferedImage (giữ nguyên nếu đã là BufferedImage). */
+    public static BufferedImage toBuffered(Image img) {
+        if (img instanceof BufferedImage bi) return bi;
+        int w = Math.max(1, img.getWidth(null)), h = Math.max(1, img.getHeight(null));
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = out.createGraphics();
+        g2.drawImage(img, 0, 0, null);
+        g2.dispose();
+        return out;
     }
 
     // ============================= text ==============================
@@ -141,41 +195,6 @@ public final class AssetLoader {
         boolean isRunning();
     }
 
-    /** Triển khai bằng Java Sound Clip (hỗ trợ resume thật). */
-    private static final class ClipMusic implements Music {
-        private final Clip clip;
-        private long pauseMicros = 0;
-        private boolean running = false;
-
-        ClipMusic(Clip clip, boolean startLooping) {
-            this.clip = clip;
-            if (startLooping) {
-                this.clip.loop(Clip.LOOP_CONTINUOUSLY);
-                this.clip.start();
-                running = true;
-            }
-        }
-        @Override public void pause() {
-            if (!running) return;
-            pauseMicros = clip.getMicrosecondPosition();
-            clip.stop();
-            running = false;
-        }
-        @Override public void resume() {
-            if (running) return;
-            clip.setMicrosecondPosition(Math.max(0, pauseMicros));
-            clip.loop(Clip.LOOP_CONTINUOUSLY);
-            clip.start();
-            running = true;
-        }
-        @Override public void stop() {
-            try { clip.stop(); } catch (Exception ignored) {}
-            try { clip.close(); } catch (Exception ignored) {}
-            running = false;
-        }
-        @Override public boolean isRunning() { return running && clip.isOpen(); }
-    }
-
     /** Triển khai fallback JLayer (không resume được – resume = phát lại từ đầu). */
     private static final class JLayerMusic implements Music {
         private final Thread t;
@@ -192,38 +211,13 @@ public final class AssetLoader {
         @Override public boolean isRunning() { return running && t != null && t.isAlive(); }
     }
 
-    /** Tạo Clip từ stream; tự convert sang PCM nếu cần (cần mp3spi để mở MP3). */
-    private static Clip openClip(InputStream in) throws Exception {
-        try (BufferedInputStream bin = new BufferedInputStream(in)) {
-            AudioInputStream ais = AudioSystem.getAudioInputStream(bin);
-            AudioFormat base = ais.getFormat();
-            AudioFormat target = base;
-            if (base.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                target = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        base.getSampleRate(),
-                        16,
-                        base.getChannels(),
-                        base.getChannels() * 2,
-                        base.getSampleRate(),
-                        false
-                );
-                ais = AudioSystem.getAudioInputStream(target, ais); // cần mp3spi đối với MP3
-            }
-            DataLine.Info info = new DataLine.Info(Clip.class, target);
-            Clip clip = (Clip) AudioSystem.getLine(info);
-            clip.open(ais);
-            return clip;
-        }
-    }
-
-    /** Tạo Music từ resource path: ưu tiên Clip (resume được), nếu lỗi → JLayer loop. */
+    /** Tạo Music từ resource path: ưu tiên StreamingMusic (resume đúng vị trí), nếu lỗi → JLayer loop. */
     public static Music loopMusicFromResource(String path) {
         String key = norm(path);
+        if (!exists(key)) return null; // thiếu file → để MusicHub thử định dạng khác
         try {
-            Clip c = openClip(open(key));
-            return new ClipMusic(c, true);
-        } catch (Throwable clipFail) {
+            return StreamingMusic.loop(() -> open(key));
+        } catch (Throwable streamFail) {
             try {
                 Class<?> clazz = Class.forName("javazoom.jl.player.Player");
                 Thread th = new Thread(() -> {
@@ -245,13 +239,25 @@ public final class AssetLoader {
         }
     }
 
-    /** Tạo Music từ đường file tuyệt đối: ưu tiên Clip, lỗi → JLayer loop. */
+    /**
+     * Mở sẵn nhạc (stream đã decode đầu bài, đang pause) để phát ngay khi resume(); null nếu không mở được.
+     * Không có fallback JLayer (JLayer không pause được). resPath tuyệt đối → đọc file trực tiếp.
+     */
+    public static Music prepareMusic(String resPath) {
+        if (isAbsolutePath(resPath) ? !existsFile(resPath) : !exists(resPath)) return null;
+        try {
+            return StreamingMusic.prepare(() -> open(resPath));
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /** Tạo Music từ đường file tuyệt đối: ưu tiên StreamingMusic, lỗi → JLayer loop. */
     public static Music loopMusicFromFile(String absPath) {
         if (!existsFile(absPath)) return null;
-        try (InputStream in = new FileInputStream(absPath)) {
-            Clip c = openClip(in);
-            return new ClipMusic(c, true);
-        } catch (Throwable clipFail) {
+        try {
+            return StreamingMusic.loop(() -> new FileInputStream(absPath));
+        } catch (Throwable streamFail) {
             try {
                 Class<?> clazz = Class.forName("javazoom.jl.player.Player");
                 Thread th = new Thread(() -> {
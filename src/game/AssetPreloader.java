@@ -0,0 +1,108 @@
+/** nạp trước ảnh (nền Map1–5, nền sảnh, icon, skin paddle) song song lúc khởi động*/
+package game;
+
+import game.mainhall.PaddleSkinStore;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giải mã trước mọi ảnh game cần trên 1 pool thread (mỗi ảnh 1 task) → thời gian khởi động
+ * ≈ ảnh chậm nhất thay vì tổng. Ảnh vào cache của AssetLoader; các lần gọi sau chỉ là tra cache.
+ * Nền (backgrounds/) chỉ vẽ ở kích thước màn hình → nạp thẳng bản đã scale, không giữ bản full-size.
+ * Listener được gọi trên EDT sau mỗi ảnh xong (để vẽ tiến độ).
+ */
+public final class AssetPreloader {
+    public static final String MAIN_BACKGROUND = "backgrounds/mainbackground.jpg";
+    public static final int SCREEN_W = GamePanel.SCREEN_W, SCREEN_H = GamePanel.SCREEN_H;
+
+    private static AssetPreloader instance;
+
+    // 1 thread nền cho việc nạp lẻ trong lúc chơi (prefetch level kế); chạy tuần tự theo thứ tự submit
+    private static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "asset-prefetch");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private final List<String> paths;
+    private final AtomicInteger done = new AtomicInteger();
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private AssetPreloader(List<String> paths) { this.paths = paths; }
+
+    /** Khởi động 1 lần cho cả chương trình; các lần sau trả về cùng instance. */
+    public static synchronized AssetPreloader startOnce() {
+        if (instance == null) {
+            instance = new AssetPreloader(defaultAssets());
+            instance.start();
+        }
+        return instance;
+    }
+
+    /** Danh sách ảnh game dùng (nền sảnh đặt đầu để hiện sớm nhất); icon pause/home hiện là file rỗng → không xếp hàng. */
+    private static List<String> defaultAssets() {
+        List<String> list = new ArrayList<>();
+        list.add(MAIN_BACKGROUND);
+        for (int i = 1; i <= 5; i++) list.add("backgrounds/Map" + i + ".jpg");
+        for (int i = 0; i < PaddleSkinStore.count(); i++) list.add(PaddleSkinStore.pathAt(i));
+        return list;
+    }
+
+    private void start() {
+        int threads = Math.min(paths.size(), Math.max(2, Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-preload");
+            t.setDaemon(true);
+            return t;
+        });
+        for (String p : paths) {
+            pool.submit(() -> {
+                try {
+                    if (p.startsWith("backgrounds/")) {
+                        AssetLoader.scaled(p, SCREEN_W, SCREEN_H);
+                        loaded.add(p);
+                    } else if (AssetLoader.imageOrNull(p) != null) {
+                        loaded.add(p);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("[AssetPreloader] failed: " + p + " (" + e.getMessage() + ")");
+                } finally {
+                    boolean last = done.incrementAndGet() >= paths.size();
+                    for (Runnable l : listeners) SwingUtilities.invokeLater(l);
+                    if (last) listeners.clear(); // xong hết: thả tham chiếu tới các màn hình đã đăng ký
+                }
+            });
+        }
+        pool.shutdown();
+    }
+
+    /** Chạy việc nạp trên thread prefetch (tuần tự, không chặn EDT / vòng tick). */
+    public static <T> Future<T> submit(Callable<T> task) { return PREFETCH.submit(task); }
+
+    /**
+     * Đăng ký callback tiến độ (chạy trên EDT). Ảnh cuối xong ngay giữa lúc kiểm tra và add thì worker đã duyệt
+     * + clear danh sách trước khi listener vào → kiểm lại sau add, gỡ ra và tự gọi 1 lần.
+     */
+    public void addListener(Runnable onProgress) {
+        if (finished()) return;
+        listeners.add(onProgress);
+        if (finished() && listeners.remove(onProgress)) SwingUtilities.invokeLater(onProgress);
+    }
+
+    public int total() { return paths.size(); }
+    public int done() { return done.get(); }
+    public boolean finished() { return done.get() >= paths.size(); }
+    public boolean isLoaded(String path) { return loaded.contains(path); }
+}
@@ -0,0 +1,37 @@
+/** đếm FPS + khung bị rớt để so sánh vẽ thụ động (repaint) và chủ động (BufferStrategy)*/
+package game;
+
+/** Thống kê khung hình: FPS theo cửa sổ 1 giây + tổng số khung bị rớt. */
+public final class FrameStats {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final String mode;
+    private long windowStart = -1;
+    private int framesInWindow = 0;
+    private volatile int fps = 0;
+    private volatile long dropped = 0;
+
+    public FrameStats(String mode) { this.mode = mode; }
+
+    /** Gọi mỗi khi 1 khung đã thực sự được vẽ ra màn hình. */
+    public void frameShown(long nowNanos) {
+        if (windowStart < 0) windowStart = nowNanos;
+        framesInWindow++;
+        if (nowNanos - windowStart >= WINDOW_NANOS) {
+            fps = (int) Math.round(framesInWindow * (double) WINDOW_NANOS / (nowNanos - windowStart));
+            framesInWindow = 0;
+            windowStart = nowNanos;
+        }
+    }
+
+    /** Ghi nhận n khung không kịp vẽ (trễ hạn hoặc bị Swing gộp). */
+    public void dropped(long n) { if (n > 0) dropped += n; }
+
+    public int fps() { return fps; }
+    public long droppedFrames() { return dropped; }
+    public String mode() { return mode; }
+
+    @Override public String toString() {
+        return "FPS: " + fps + "  drop: " + dropped + " [" + mode + "]";
+    }
+}
@@ -1,57 +1,54 @@
-/** controller, view: giữ state (play, pause...) vòng lặp timer -> update() -> repaint chứa paddle
- * danh sách ball, LevelManager, DropManager, ProjectileManager, MusicHub.
+/** controller, view: giữ state (play, pause...) vòng lặp timer -> GameSimulation.step() -> repaint,
+ * MusicHub; toàn bộ logic game nằm trong GameSimulation.
  */
 package game;
 
+import game.logic.SimClock;
 import game.mainhall.PaddleSkinStore;
-import game.objects.Ball;
 import game.objects.Brick;
-import game.objects.Paddle;
-import game.play.DropManager;
-import game.play.Pickup;
-import game.play.ProjectileManager;
+import game.ui.HudOverlay;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
 
 public class GamePanel extends JPanel implements ActionListener, KeyListener, MouseListener {
 
+    /** Kích thước màn chơi mặc định (cửa sổ, sảnh, ảnh nền nạp trước). */
+    public static final int SCREEN_W = 800, SCREEN_H = 600;
+
     private final int WIDTH, HEIGHT;
-    private final Timer timer = new Timer(1000 / 60, this);
+    private final Timer timer = new Timer(1000 / 60, this); // chỉ là nhịp khung hình
+    private final SimClock clock = new SimClock();           // nhịp mô phỏng cố định
+
+    // vẽ: thụ động (repaint) mặc định; chủ động (BufferStrategy) nếu -Darkanoid.render=active
+    private final Object frameLock = new Object();
+    private final FrameStats passiveStats = new FrameStats("passive");
+    private final boolean showFps = Boolean.getBoolean("arkanoid.showFps");
+    private ActiveRenderer activeRenderer;
+    private boolean paintPending;
+
+    // đo thời gian từng pha: bật bằng -Darkanoid.profile=true hoặc lần đầu mở bảng debug (F3);
+    // bảng tổng ghi ra -Darkanoid.profileOut (mặc định arkanoid-profile.txt) khi thoát
+    private final PhaseProfiler profiler = new PhaseProfiler();
+    private final HudOverlay hud = new HudOverlay();
+    private boolean profiling = Boolean.getBoolean("arkanoid.profile");
+    private boolean debugHud = Boolean.getBoolean("arkanoid.debugHud");
 
     private enum State { MENU, PLAY, PAUSE, SETTINGS, GAMEOVER, WIN }
     private State state = State.MENU;
 
-    // === PADDLE SIZE (đã giảm) ===
-    private static final int PADDLE_W_DEFAULT = 96;
-    private static final int PADDLE_H_DEFAULT = 12;
-
-    private final LevelManager levels;
+    private final GameSimulation sim;
+    private final GameSimulation.Input input = new GameSimulation.Input();
     private final MusicHub music = new MusicHub();
-    private final DropManager dropMgr = new DropManager();
-    private final ProjectileManager projMgr = new ProjectileManager();
-
-    private final List<Ball> balls = new ArrayList<>();
-    private final Paddle paddle;
-
-    // serving sway
-    private boolean serving = true;
-    private double serveOffset = 0;
-    private int serveDir = +1;
-    private double serveSpeed = 1.8;
-
-    // HUD/state
-    private int score = 0, lives = 3, levelIndex = 0;
-    private final int TOTAL_LEVELS = 5;
 
     // buttons
     private final Rectangle pauseBtn = new Rectangle();
     private final Rectangle homeBtn  = new Rectangle();
     private final Rectangle settingsBtn = new Rectangle();
     private final int btnW = 26, btnH = 26, btnPad = 10;
+    private static final String SCENE = "game"; // scene trong cache ảnh (icon HUD, nền menu)
     private Image pauseIcon, homeIcon, gearIcon, mainBg;
 
     // settings overlay
@@ -59,17 +56,16 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener, Mo
     private final Rectangle btnMainMenu    = new Rectangle();
     private final Rectangle btnBack        = new Rectangle();
 
-    // expand timer
-    private long expandUntil = 0;
-    private Integer paddleOrigW = null;
-
     // input
-    private boolean left, right;
+    private boolean left, right, launchPending;
 
     // ==== wrappers cho powerup ====
-    public void enableGun(int ms) { projMgr.enableGun(ms); }                  // gun: bắn từ 2 mép
-    public void fireLaser() { projMgr.fireLaser(paddleCenterX(), levels, dropMgr, this::addScore); } // laser: giữa
-    public void addLife(int d) { lives = Math.min(9, lives + Math.max(0, d)); }
+    public void enableGun(int ms) { sim.enableGun(ms); }                      // gun: bắn từ 2 mép
+    public void fireLaser() { sim.fireLaser(); }                              // laser: giữa
+    public void addLife(int d) { sim.addLife(d); }
+    public void activateExpand(long ms) { sim.activateExpand(ms); }
+    /** x3 mỗi bóng hiện có (bonus chuỗi). */
+    public void spawnBonusBalls() { sim.spawnBonusBalls(); }
 
     public GamePanel(int w, int h) {
         this.WIDTH = w; this.HEIGHT = h;
@@ -80,202 +76,113 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener, Mo
         addKeyListener(this);
         addMouseListener(this);
 
-        levels = new LevelManager(w, h);
-
-        paddle = new Paddle(
-                WIDTH / 2.0 - PADDLE_W_DEFAULT / 2.0,
-                HEIGHT - 60,
-                PADDLE_W_DEFAULT,
-                PADDLE_H_DEFAULT,
-                5.8
-        );
+        sim = new GameSimulation(w, h, System.nanoTime());
         // ✅ LẤY ẢNH SKIN NGƯỜI DÙNG ĐÃ CHỌN Ở MAIN HALL
-        paddle.setSkinImage(PaddleSkinStore.getImage());
-
-        balls.add(new Ball(WIDTH / 2.0, HEIGHT - 60, 8, 0, 0));
+        sim.paddle().setSkinPath(PaddleSkinStore.pathAt(PaddleSkinStore.getIndex())); // scale qua cache (path, w, h)
+        if (debugHud) profiling = true;
+        if (profiling) sim.setProfiler(profiler);
+        profiler.dumpOnExit(new File(System.getProperty("arkanoid.profileOut", "arkanoid-profile.txt")));
 
+        pinSceneImages();
         try { pauseIcon  = AssetLoader.scaled("images/pause.png",  btnW, btnH); } catch (Exception ignored) {}
         try { homeIcon   = AssetLoader.scaled("images/home.png",   btnW, btnH); } catch (Exception ignored) {}
         try { gearIcon   = AssetLoader.scaled("images/gear.png",   btnW, btnH); } catch (Exception ignored) {}
         try { mainBg     = AssetLoader.scaled("backgrounds/mainbackground.jpg", w, h); } catch (Exception ignored) {}
 
-        levels.load(levelIndex);
         music.playMenu();
+        SfxMixer.startOnce();
+        SfxMixer.listen(sim.events()); // âm thanh gameplay (gạch/quà/mất bóng/paddle/đạn/laser) lấy từ bus sự kiện
         timer.start();
     }
 
     /** Gọi khi bấm PLAY từ MainHall. */
     public void prepareLevel1FromHall() {
         music.stop();
-        levelIndex = 0;
-        levels.load(levelIndex);
-        resetBallPaddle();
-        serving = true;
+        if (Boolean.getBoolean("arkanoid.endless")) sim.startEndless(); // -Darkanoid.endless=true
+        else sim.startLevel(0);
         state = State.PLAY;
-        music.playLevel(levelIndex);
+        music.playLevel(sim.levelIndex());
     }
 
     @Override public void actionPerformed(ActionEvent e) {
-        if (state == State.PLAY) update();
-        repaint();
-    }
-
-    private void update() {
-        if (left)  paddle.move(-1, WIDTH);
-        if (right) paddle.move( 1, WIDTH);
-
-        if (serving) {
-            double maxOffset = paddle.w / 2.0 - 8;
-            serveOffset += serveDir * serveSpeed;
-            if (serveOffset >  maxOffset) { serveOffset =  maxOffset; serveDir = -1; }
-            if (serveOffset < -maxOffset) { serveOffset = -maxOffset; serveDir = +1; }
-
-            Ball b = balls.get(0);
-            b.x = paddle.x + paddle.w / 2.0 + serveOffset;
-            b.y = paddle.y - b.r - 1;
-
-            tickExpandTimer();
-            dropMgr.update(paddle, HEIGHT, this::applyDrop);
-            projMgr.update(System.currentTimeMillis(), paddle, HEIGHT, levels, dropMgr, this::addScore);
-            return;
-        }
-
-        for (int i = 0; i < balls.size(); i++) {
-            Ball b = balls.get(i);
-            b.update();
-            if (b.x - b.r < 0)      { b.x = b.r;         b.vx = -b.vx; }
-            if (b.x + b.r > WIDTH)  { b.x = WIDTH-b.r;   b.vx = -b.vx; }
-            if (b.y - b.r < 0)      { b.y = b.r;         b.vy = -b.vy; }
-            if (b.y - b.r > HEIGHT) { balls.remove(i--); continue; }
-
-            if (b.getRect().intersects(paddle.getRect()) && b.vy > 0) {
-                b.y = paddle.y - b.r - 1;
-                double center = paddle.x + paddle.w / 2.0;
-                double t = (b.x - center) / (paddle.w / 2.0);
-                t = Math.max(-1, Math.min(1, t));
-                double speed = 6.0;
-                b.vx = t * 5.0;
-                b.vy = -Math.sqrt(Math.max(1, speed*speed - b.vx*b.vx));
+        synchronized (frameLock) {
+            int steps = clock.advance(System.nanoTime(), state == State.PLAY);
+            for (int i = 0; i < steps && state == State.PLAY; i++) {
+                input.left = left; input.right = right; input.launch = launchPending;
+                launchPending = false;
+                switch (sim.step(input)) {
+                    case LEVEL_ADVANCED -> music.playLevel(sim.levelIndex());
+                    case GAME_OVER      -> { state = State.GAMEOVER; music.stop(); }
+                    case ALL_CLEARED    -> { state = State.WIN; music.stop(); }
+                    case NONE           -> { }
+                }
             }
-
-            Rectangle br = b.getRect();
-            for (int j = 0; j < levels.bricks.length; j++) {
-                Brick brick = levels.bricks[j];
-                if (brick == null) continue;
-                Rectangle r = brick.getRect();
-                if (!br.intersects(r)) continue;
-
-                int leftO   = (int)(br.x + br.width) - r.x;
-                int rightO  = (int)(r.x + r.width) - br.x;
-                int topO    = (int)(br.y + br.height) - r.y;
-                int bottomO = (int)(r.y + r.height) - br.y;
-                if (Math.min(leftO, rightO) < Math.min(topO, bottomO)) b.vx = -b.vx; else b.vy = -b.vy;
-
-                boolean broken = brick.onHit();
-                if (broken) {
-                    if (brick.getPickup() != null) {
-                        dropMgr.spawn(brick.getPickup(), brick.x + brick.w/2.0, brick.y + brick.h/2.0);
-                    }
-                    levels.bricks[j] = null;
-                    addScore(10);
-                } else addScore(2);
-                break;
-            }
-        }
-
-        if (balls.isEmpty()) {
-            lives--;
-            if (lives <= 0) { state = State.GAMEOVER; music.stop(); return; }
-            enterServingMode();
         }
-
-        tickExpandTimer();
-        dropMgr.update(paddle, HEIGHT, this::applyDrop);
-        projMgr.update(System.currentTimeMillis(), paddle, HEIGHT, levels, dropMgr, this::addScore);
-
-        if (levels.cleared()) {
-            if (levelIndex + 1 < TOTAL_LEVELS) {
-                levelIndex++;
-                levels.load(levelIndex);
-                resetBallPaddle();
-                enterServingMode();
-                music.playLevel(levelIndex);
-            } else { state = State.WIN; music.stop(); }
-        }
-    }
-
-    private void tickExpandTimer(){
-        long now = System.currentTimeMillis();
-        if (expandUntil > 0 && now >= expandUntil) {
-            if (paddleOrigW != null) paddle.w = paddleOrigW;
-            expandUntil = 0; paddleOrigW = null;
-        }
-    }
-
-    private void enterServingMode() {
-        balls.clear();
-        balls.add(new Ball(paddle.x + paddle.w/2.0, paddle.y - 9, 8, 0, 0));
-        serving = true; serveOffset = 0; serveDir = +1;
+        if (activeRenderer != null) return; // thread vẽ riêng lo phần hiển thị
+        if (paintPending) passiveStats.dropped(1); // lần repaint trước bị Swing gộp mất
+        paintPending = true;
+        repaint();
     }
 
-    private void addScore(int d){ score += d; }
-    private int paddleCenterX() { return (int)(paddle.x + paddle.w / 2.0); }
-
-    private void applyDrop(Pickup.Type t) {
-        switch (t) {
-            case EXPAND       -> activateExpand(10_000);
-            case BONUS_BALLS  -> spawnBonusBalls();
-            case LAZER        -> fireLaser();
-            case GUN          -> enableGun(5_000);
-            case HEART        -> addLife(1);
-        }
+    /** Chuyển sang vẽ chủ động: Canvas phủ kín panel, BufferStrategy lật trang trên thread riêng. */
+    public void startActiveRendering() {
+        if (activeRenderer != null) return;
+        Canvas canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        canvas.setFocusable(true);
+        canvas.addKeyListener(this);
+        canvas.addMouseListener(this);
+        setLayout(new BorderLayout());
+        add(canvas, BorderLayout.CENTER);
+        revalidate();
+
+        activeRenderer = new ActiveRenderer(canvas, this::renderFrame, frameLock, SimClock.TICK_HZ);
+        activeRenderer.start();
+        canvas.requestFocus();
     }
 
-    public void activateExpand(long ms) {
-        if (paddleOrigW == null) paddleOrigW = paddle.w;
-        paddle.w = (int)Math.round(paddle.w * 1.5);
-        if (paddle.x + paddle.w > WIDTH - 10) paddle.x = WIDTH - 10 - paddle.w;
-        expandUntil = System.currentTimeMillis() + ms;
-    }
-
-    /** x3 mỗi bóng hiện có (bonus chuỗi). */
-    public void spawnBonusBalls() {
-        if (serving || balls.isEmpty()) return;
-        int n = balls.size();
-        List<Ball> extra = new ArrayList<>(n * 2);
-        for (int i = 0; i < n; i++) {
-            Ball ref = balls.get(i);
-            extra.add(new Ball(ref.x, ref.y, ref.r, ref.vx - 1.8, ref.vy - 0.6));
-            extra.add(new Ball(ref.x, ref.y, ref.r, ref.vx + 1.8, ref.vy - 0.6));
-        }
-        balls.addAll(extra);
+    /** Thống kê khung hình của đường vẽ đang dùng. */
+    public FrameStats frameStats() {
+        return activeRenderer != null ? activeRenderer.stats() : passiveStats;
     }
 
     @Override protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
+        renderFrame((Graphics2D) g);
+        paintPending = false;
+        passiveStats.frameShown(System.nanoTime());
+    }
+
+    /** Vẽ toàn bộ khung hình; dùng chung cho paintComponent và ActiveRenderer. */
+    private void renderFrame(Graphics2D g2) {
+        long t = profiling ? System.nanoTime() : 0;
+        if (profiling) profiler.roll(t);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         if (state == State.MENU && mainBg != null) g2.drawImage(mainBg, 0, 0, null);
-        else if (levels.background() != null)      g2.drawImage(levels.background(), 0, 0, null);
+        else if (sim.levels().background() != null) g2.drawImage(sim.levels().background(), 0, 0, null);
         else {
             g2.setPaint(new GradientPaint(0,0,new Color(10,10,20), 0,getHeight(), Color.BLACK));
             g2.fillRect(0,0,getWidth(),getHeight());
         }
+        t = lap(PhaseProfiler.Phase.PAINT_BG, t);
 
         if (state != State.MENU) {
-            for (Brick b : levels.bricks) if (b != null) b.draw(g2);
-            paddle.draw(g2);
-            for (Ball b : balls) b.draw(g2);
+            for (Brick b : sim.levels().bricks) if (b != null) b.draw(g2);
+            t = lap(PhaseProfiler.Phase.PAINT_BRICKS, t);
+            sim.paddle().draw(g2);
+            sim.balls().draw(g2);
 
-            dropMgr.render(g2);
-            projMgr.render(g2, paddle);
+            sim.drops().render(g2);
+            sim.projectiles().render(g2, sim.paddle());
+            t = lap(PhaseProfiler.Phase.PAINT_ENTITIES, t);
 
             g2.setColor(Color.WHITE);
             g2.setFont(new Font("Monospaced", Font.PLAIN, 14));
-            g2.drawString("Score: " + score, 12, 20);
-            g2.drawString("Lives: " + Math.max(0, lives), 120, 20);
-            g2.drawString("Level: " + (levelIndex + 1) + "/5", 200, 20);
+            g2.drawString("Score: " + sim.score(), 12, 20);
+            g2.drawString("Lives: " + Math.max(0, sim.lives()), 120, 20);
+            if (sim.isEndless()) g2.drawString("Endless: row " + sim.levels().rowsGenerated(), 200, 20);
+            else g2.drawString("Level: " + (sim.levelIndex() + 1) + "/5", 200, 20);
 
             int px = getWidth() - btnW - btnPad, py = 8;
             if (pauseIcon != null) g2.drawImage(pauseIcon, px, py, null);
@@ -294,12 +201,36 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener, Mo
         }
 
         drawOverlay(g2);
+
+        if (showFps) {
+            g2.setColor(Color.WHITE);
+            g2.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            g2.drawString(frameStats().toString(), 12, getHeight() - 10);
+        }
+        if (debugHud) hud.renderDebug(g2, debugHeader(), profiler.lines());
+        lap(PhaseProfiler.Phase.PAINT_HUD, t);
+    }
+
+    private long lap(PhaseProfiler.Phase p, long t0) {
+        if (!profiling) return 0;
+        long t = System.nanoTime();
+        profiler.record(p, t - t0);
+        return t;
+    }
+
+    /** FPS + số thực thể cho bảng debug (chỉ tính khi bảng đang bật). */
+    private String debugHeader() {
+        int bricks = 0;
+        for (Brick b : sim.levels().bricks) if (b != null) bricks++;
+        return "FPS " + frameStats().fps() + "  balls " + sim.balls().size() + "  bricks " + bricks
+                + "  drops " + sim.drops().count() + "  bullets " + sim.projectiles().bulletCount()
+                + "  lasers " + sim.projectiles().laserCount();
     }
 
     private void drawOverlay(Graphics2D g2) {
         boolean needOverlay =
                 state == State.SETTINGS || state == State.GAMEOVER || state == State.WIN ||
-                        (state == State.PAUSE && !serving);
+                        (state == State.PAUSE && !sim.isServing());
         if (!needOverlay) return;
 
         g2.setColor(new Color(0,0,0,110));
@@ -311,7 +242,7 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener, Mo
             case PAUSE -> "PAUSED";
             case SETTINGS -> "SETTINGS";
             case GAMEOVER -> "GAME OVER - Press R to Retry";
-            case WIN -> (levelIndex + 1 < 5) ? "LEVEL CLEARED - Press N for Next"
+            case WIN -> (sim.levelIndex() + 1 < 5) ? "LEVEL CLEARED - Press N for Next"
                     : "ALL LEVELS CLEARED - Press R to Restart";
             default -> "";
         };
@@ -340,78 +271,73 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener, Mo
 
     @Override public void keyTyped(KeyEvent e) {}
     @Override public void keyPressed(KeyEvent e) {
+        synchronized (frameLock) { handleKeyPressed(e); }
+    }
+    private void handleKeyPressed(KeyEvent e) {
         if (e.getKeyCode()==KeyEvent.VK_LEFT || e.getKeyCode()==KeyEvent.VK_A)  left = true;
         if (e.getKeyCode()==KeyEvent.VK_RIGHT|| e.getKeyCode()==KeyEvent.VK_D) right = true;
+        if (e.getKeyCode()==KeyEvent.VK_F3) { // bảng debug thời gian từng pha
+            debugHud = !debugHud;
+            if (debugHud && !profiling) { profiling = true; sim.setProfiler(profiler); }
+        }
         if (e.getKeyCode()==KeyEvent.VK_SPACE) {
             if (state == State.MENU) { prepareLevel1FromHall(); return; }
-            if (serving) { launchFromServe(); state = State.PLAY; music.resume(); return; }
+            if (sim.isServing()) { launchPending = true; state = State.PLAY; music.resume(); return; }
         }
         if (e.getKeyCode()==KeyEvent.VK_P && state!=State.MENU && state!=State.SETTINGS) {
-            if (state==State.PLAY && !serving) { state=State.PAUSE; music.pause(); }
+            if (state==State.PLAY && !sim.isServing()) { state=State.PAUSE; music.pause(); }
             else if (state==State.PAUSE) { state=State.PLAY; music.resume(); }
         }
         if (e.getKeyCode()==KeyEvent.VK_N && state==State.WIN) {
-            if (levelIndex + 1 < TOTAL_LEVELS) {
-                levelIndex++; levels.load(levelIndex); resetBallPaddle();
-                enterServingMode(); music.playLevel(levelIndex);
-            } else { state = State.MENU; resetAll(); music.playMenu(); }
+            if (sim.advanceLevel()) music.playLevel(sim.levelIndex());
+            else { state = State.MENU; sim.restart(); music.playMenu(); }
         }
         if (e.getKeyCode()==KeyEvent.VK_R && (state==State.GAMEOVER || state==State.WIN)) {
-            resetAll(); enterServingMode(); music.playLevel(levelIndex);
+            sim.restart(); music.playLevel(sim.levelIndex());
         }
     }
-    private void launchFromServe() {
-        Ball b = balls.get(0);
-        double center = paddle.x + paddle.w / 2.0;
-        double t = (b.x - center) / (paddle.w / 2.0);
-        t = Math.max(-1, Math.min(1, t));
-        double speed = 6.0;
-        b.vx = t * 5.0;
-        b.vy = -Math.sqrt(Math.max(1, speed*speed - b.vx*b.vx));
-        serving = false;
-    }
     @Override public void keyReleased(KeyEvent e) {
         if (e.getKeyCode()==KeyEvent.VK_LEFT || e.getKeyCode()==KeyEvent.VK_A)  left = false;
         if (e.getKeyCode()==KeyEvent.VK_RIGHT|| e.getKeyCode()==KeyEvent.VK_D) right = false;
     }
 
     @Override public void mouseClicked(MouseEvent e) {
+        synchronized (frameLock) { handleClick(e); }
+    }
+    private void handleClick(MouseEvent e) {
         Point p = e.getPoint();
         if (settingsBtn.contains(p) && state!=State.MENU) { state=State.SETTINGS; repaint(); return; }
         if (pauseBtn.contains(p) && state!=State.MENU) {
-            if (state==State.PLAY && !serving) { state=State.PAUSE; music.pause(); }
+            if (state==State.PLAY && !sim.isServing()) { state=State.PAUSE; music.pause(); }
             else if (state==State.PAUSE) { state=State.PLAY; music.resume(); }
             repaint(); return;
         }
         if (homeBtn.contains(p)) { goToMainMenu(); return; }
         if (state == State.SETTINGS) {
             if (btnMusicToggle.contains(p)) {
-                music.setEnabled(!music.isEnabled(), state==State.MENU, levelIndex);
+                music.setEnabled(!music.isEnabled(), state==State.MENU, sim.levelIndex());
                 repaint(); return;
             } else if (btnMainMenu.contains(p)) { goToMainMenu(); return; }
             else if (btnBack.contains(p)) { state=State.PAUSE; repaint(); return; }
         }
     }
+    /** Nền menu giữ trong cache ảnh khi đang ở màn chơi (icon pause/home hiện là file rỗng, không ghim). */
+    private void pinSceneImages() {
+        AssetLoader.pinScaled(SCENE, "backgrounds/mainbackground.jpg", WIDTH, HEIGHT);
+    }
+
     private void goToMainMenu() {
+        timer.stop(); // panel bỏ đi: mô phỏng không chạy tiếp ngầm
+        SfxMixer.unlisten(sim.events());
         try { music.stop(); } catch (Exception ignored) {}
+        if (activeRenderer != null) activeRenderer.stop();
+        synchronized (frameLock) { sim.levels().releaseAssets(); }
+        AssetLoader.releaseScene(SCENE);
         java.awt.Window win = javax.swing.SwingUtilities.getWindowAncestor(this);
         if (win != null) win.dispose();
         javax.swing.SwingUtilities.invokeLater(() -> new game.mainhall.MainHall());
     }
 
-    private void resetBallPaddle() {
-        paddle.x = WIDTH / 2.0 - paddle.w / 2.0;
-        balls.clear(); balls.add(new Ball(WIDTH/2.0, HEIGHT - 60, 8, 0, 0));
-        dropMgr.clear(); projMgr.clear();
-        expandUntil = 0; paddleOrigW = null;
-        serving = true; serveOffset = 0; serveDir = +1;
-    }
-    private void resetAll() {
-        score = 0; lives = 3; levelIndex = 0;
-        levels.load(levelIndex);
-        resetBallPaddle();
-    }
-
     @Override public void mousePressed(MouseEvent e) {}
     @Override public void mouseReleased(MouseEvent e) {}
     @Override public void mouseEntered(MouseEvent e) {}
@@ -0,0 +1,312 @@
+/** lõi mô phỏng headless: paddle, bóng, gạch, quà, đạn, điểm/mạng — không cần màn hình*/
+package game;
+
+import game.logic.BallPhysics;
+import game.logic.GameEventBus;
+import game.logic.SimClock;
+import game.objects.BallPool;
+import game.objects.Brick;
+import game.objects.Paddle;
+import game.play.DropManager;
+import game.play.Pickup;
+import game.play.ProjectileManager;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Toàn bộ logic game, tách khỏi GamePanel (JPanel) để chạy được không cần display.
+ * - step(input): tiến 1 tick cố định (SimClock.TICK_HZ), trả về sự kiện lớn cho view xử lý (nhạc, state).
+ * - Sự kiện gameplay (gạch, quà, mất bóng, qua màn, paddle, đạn/laser) đi qua GameEventBus: điểm được cộng bởi consumer
+ *   owner cuối mỗi tick; âm thanh/UI đăng ký con trỏ riêng qua events().
+ * - Ngẫu nhiên duy nhất là Random seed truyền vào → cùng seed + cùng chuỗi input cho ra cùng state
+ *   (kiểm bằng stateHash()).
+ */
+public final class GameSimulation {
+
+    /** Input cho 1 tick. launch: bắn bóng khi đang kê (serving). */
+    public static final class Input {
+        public boolean left, right, launch;
+    }
+
+    /** Kết quả đáng chú ý của 1 tick. */
+    public enum Event { NONE, LEVEL_ADVANCED, GAME_OVER, ALL_CLEARED }
+
+    public static final int TOTAL_LEVELS = 5;
+
+    // === PADDLE SIZE (đã giảm) ===
+    private static final int PADDLE_W_DEFAULT = 96;
+    private static final int PADDLE_H_DEFAULT = 12;
+
+    private final int WIDTH, HEIGHT;
+    private final LevelManager levels;
+    private final DropManager dropMgr = new DropManager();
+    private final ProjectileManager projMgr = new ProjectileManager();
+    private final BallPool balls = new BallPool(64); // bóng lưu dạng mảng (x/y/vx/vy)
+    private final Paddle paddle;
+    private final BallPhysics.Scratch nearBricks = new BallPhysics.Scratch(); // buffer truy vấn lưới gạch (tự nới, giữ lại)
+    // callback giữ sẵn: method ref tạo object mới mỗi lần viết ra → tạo 1 lần cho vòng lặp tick
+    private final Consumer<Pickup.Type> dropSink = this::applyDrop;
+    private final GameEventBus events = new GameEventBus(4096, this::onEvent); // owner = chấm điểm
+
+    // serving sway
+    private boolean serving = true;
+    private double serveOffset = 0;
+    private int serveDir = +1;
+    private final double serveSpeed = 1.8;
+
+    private int score = 0, lives = 3, levelIndex = 0;
+    private boolean finished = false; // GAME_OVER / ALL_CLEARED → dừng step
+    private boolean endless = false;  // bàn vô tận: không qua màn, chỉ hết khi hết mạng
+    private long ticks = 0;
+    private PhaseProfiler profiler; // null → không đo
+
+    // expand timer (thời gian game, ms)
+    private long expandUntil = 0;
+    private Integer paddleOrigW = null;
+
+    public GameSimulation(int w, int h, long seed) {
+        this(w, h, seed, true);
+    }
+
+    /**
+     * @param seed        nguồn ngẫu nhiên duy nhất (loại gạch khi load level)
+     * @param backgrounds false khi chạy headless/server: bỏ qua decode ảnh nền
+     */
+    public GameSimulation(int w, int h, long seed, boolean backgrounds) {
+        this.WIDTH = w; this.HEIGHT = h;
+        levels = new LevelManager(w, h, new Random(seed));
+        levels.setLoadBackgrounds(backgrounds);
+        paddle = new Paddle(
+                WIDTH / 2.0 - PADDLE_W_DEFAULT / 2.0,
+                HEIGHT - 60,
+                PADDLE_W_DEFAULT,
+                PADDLE_H_DEFAULT,
+                5.8
+        );
+        balls.add(WIDTH / 2.0, HEIGHT - 60, 8, 0, 0);
+        levels.load(levelIndex);
+        levels.prefetch(levelIndex + 1);
+    }
+
+    // ============================ điều khiển ============================
+    /** Vào level index (bóng kê trên paddle), giữ nguyên điểm/mạng. */
+    public void startLevel(int index) {
+        endless = false;
+        levelIndex = index;
+        levels.load(levelIndex);
+        if (levelIndex + 1 < TOTAL_LEVELS) levels.prefetch(levelIndex + 1); // level kế nạp nền trong lúc chơi
+        resetBallPaddle();
+        finished = false;
+    }
+
+    /** Bàn vô tận (seed của simulation quyết định các hàng gạch), giữ nguyên điểm/mạng. */
+    public void startEndless() {
+        levelIndex = 0;
+        levels.loadEndless();
+        endless = true;
+        resetBallPaddle();
+        finished = false;
+    }
+
+    /** Chơi lại từ level 1 (điểm 0, 3 mạng); đang chơi vô tận thì chơi lại bàn vô tận. */
+    public void restart() {
+        events.discardOwner();
+        score = 0; lives = 3;
+        if (endless) startEndless(); else startLevel(0);
+        enterServingMode();
+    }
+
+    /** Sang level kế (nếu còn). Trả false nếu đã là level cuối. */
+    public boolean advanceLevel() {
+        if (levelIndex + 1 >= TOTAL_LEVELS) return false;
+        startLevel(levelIndex + 1);
+        enterServingMode();
+        return true;
+    }
+
+    /** 1 tick cố định; cuối tick giao sự kiện cho owner (cộng điểm). */
+    public Event step(Input in) {
+        if (finished) return Event.NONE;
+        Event e = tick(in);
+        events.drainOwner();
+        return e;
+    }
+
+    private Event tick(Input in) {
+        long t = profiler != null ? System.nanoTime() : 0;
+        ticks++;
+        if (in.left)  paddle.move(-1, WIDTH);
+        if (in.right) paddle.move( 1, WIDTH);
+        if (in.launch && serving) launchFromServe();
+
+        if (serving) {
+            double maxOffset = paddle.w / 2.0 - 8;
+            serveOffset += serveDir * serveSpeed;
+            if (serveOffset >  maxOffset) { serveOffset =  maxOffset; serveDir = -1; }
+            if (serveOffset < -maxOffset) { serveOffset = -maxOffset; serveDir = +1; }
+
+            balls.x[0] = paddle.x + paddle.w / 2.0 + serveOffset;
+            balls.y[0] = paddle.y - balls.r[0] - 1;
+
+            tickExpandTimer();
+            t = lap(PhaseProfiler.Phase.INPUT, t);
+            dropMgr.update(paddle, HEIGHT, dropSink);
+            t = lap(PhaseProfiler.Phase.DROPS, t);
+            projMgr.update(now(), paddle, HEIGHT, levels, dropMgr, events);
+            lap(PhaseProfiler.Phase.PROJECTILES, t);
+            return Event.NONE;
+        }
+        t = lap(PhaseProfiler.Phase.INPUT, t);
+
+        // bóng: phần va chạm gạch (kèm cuộn bàn vô tận) tính riêng vào BRICKS
+        long brickNanos = BallPhysics.step(balls, paddle, levels, dropMgr, events, WIDTH, HEIGHT, nearBricks, profiler != null);
+        if (profiler != null) {
+            long t1 = System.nanoTime();
+            profiler.record(PhaseProfiler.Phase.BALLS, t1 - t - brickNanos);
+            t = t1 - brickNanos;
+        }
+        levels.update(); // bàn vô tận cuộn; bàn thường không làm gì
+        t = lap(PhaseProfiler.Phase.BRICKS, t);
+
+        if (balls.isEmpty()) {
+            lives--;
+            events.publish(GameEventBus.Type.BALL_LOST, -1, 0, paddleCenterX(), HEIGHT);
+            if (lives <= 0) { finished = true; return Event.GAME_OVER; }
+            enterServingMode();
+        }
+
+        tickExpandTimer();
+        if (profiler != null) t = System.nanoTime();
+        dropMgr.update(paddle, HEIGHT, dropSink);
+        t = lap(PhaseProfiler.Phase.DROPS, t);
+        projMgr.update(now(), paddle, HEIGHT, levels, dropMgr, events);
+        lap(PhaseProfiler.Phase.PROJECTILES, t);
+
+        if (levels.cleared()) {
+            events.publish(GameEventBus.Type.LEVEL_CLEARED, levelIndex, 0, WIDTH / 2, HEIGHT / 2);
+            if (advanceLevel()) return Event.LEVEL_ADVANCED;
+            finished = true;
+            return Event.ALL_CLEARED;
+        }
+        return Event.NONE;
+    }
+
+    // ============================ power-up ============================
+    public void enableGun(int ms) { projMgr.enableGun(now(), ms); }                       // gun: bắn từ 2 mép
+    public void fireLaser() { projMgr.fireLaser(now(), paddleCenterX(), levels, dropMgr, events); events.drainOwner(); } // laser: giữa
+    public void addLife(int d) { lives = Math.min(9, lives + Math.max(0, d)); }
+
+    public void activateExpand(long ms) {
+        if (paddleOrigW == null) paddleOrigW = paddle.w;
+        paddle.setWidth((int)Math.round(paddle.w * Paddle.EXPAND_FACTOR)); // skin scale ở đây (qua cache), không lúc vẽ
+        if (paddle.x + paddle.w > WIDTH - 10) paddle.x = WIDTH - 10 - paddle.w;
+        expandUntil = now() + ms;
+    }
+
+    /** x3 mỗi bóng hiện có (bonus chuỗi). */
+    public void spawnBonusBalls() {
+        if (serving || balls.isEmpty()) return;
+        int n = balls.size();
+        balls.ensureCapacity(n * 3);
+        for (int i = 0; i < n; i++) {
+            double x = balls.x[i], y = balls.y[i], vx = balls.vx[i], vy = balls.vy[i];
+            int r = balls.r[i];
+            balls.add(x, y, r, vx - 1.8, vy - 0.6);
+            balls.add(x, y, r, vx + 1.8, vy - 0.6);
+        }
+    }
+
+    // ============================ đọc state ============================
+    /** Thời gian game (ms) = số tick × bước cố định; đứng yên khi không step. */
+    public long now() { return ticks * 1000L / SimClock.TICK_HZ; }
+    public long ticks() { return ticks; }
+    public LevelManager levels() { return levels; }
+    public DropManager drops() { return dropMgr; }
+    public ProjectileManager projectiles() { return projMgr; }
+    /** Bật đo thời gian từng pha mỗi tick (null để tắt); không ảnh hưởng kết quả mô phỏng. */
+    public void setProfiler(PhaseProfiler p) { profiler = p; }
+    /** Bus sự kiện gameplay: consumer thread khác gọi subscribe() rồi poll() từ thread của mình. */
+    public GameEventBus events() { return events; }
+    public BallPool balls() { return balls; }
+    public Paddle paddle() { return paddle; }
+    public boolean isServing() { return serving; }
+    public boolean isEndless() { return endless; }
+    public int score() { return score; }
+    public int lives() { return lives; }
+    public int levelIndex() { return levelIndex; }
+
+    /** Hash toàn bộ state mô phỏng (bit-exact với double) để so sánh 2 lần chạy. */
+    public long stateHash() {
+        long h = 1125899906842597L;
+        h = mix(h, ticks); h = mix(h, score); h = mix(h, lives); h = mix(h, levelIndex);
+        h = mix(h, serving ? 1 : 0); h = mix(h, Double.doubleToLongBits(serveOffset)); h = mix(h, serveDir);
+        h = mix(h, Double.doubleToLongBits(paddle.x)); h = mix(h, paddle.w); h = mix(h, expandUntil);
+        for (int i = 0; i < balls.size(); i++) {
+            h = mix(h, Double.doubleToLongBits(balls.x[i]));  h = mix(h, Double.doubleToLongBits(balls.y[i]));
+            h = mix(h, Double.doubleToLongBits(balls.vx[i])); h = mix(h, Double.doubleToLongBits(balls.vy[i]));
+        }
+        for (Brick b : levels.bricks) h = mix(h, b == null ? -1 : b.hp());
+        for (int i = 0; i < dropMgr.count(); i++) { h = mix(h, dropMgr.typeAt(i).ordinal()); h = mix(h, Double.doubleToLongBits(dropMgr.yAt(i))); }
+        for (int i = 0; i < projMgr.bulletCount(); i++) { h = mix(h, projMgr.bulletX(i)); h = mix(h, projMgr.bulletY(i)); }
+        return h;
+    }
+
+    // ============================ nội bộ ============================
+    private static long mix(long h, long v) { return h * 31 + v; }
+
+    private void launchFromServe() {
+        double center = paddle.x + paddle.w / 2.0;
+        double t = (balls.x[0] - center) / (paddle.w / 2.0);
+        t = Math.max(-1, Math.min(1, t));
+        double speed = BallPhysics.BALL_SPEED;
+        balls.vx[0] = t * 5.0;
+        balls.vy[0] = -Math.sqrt(Math.max(1, speed*speed - balls.vx[0]*balls.vx[0]));
+        serving = false;
+    }
+
+    private void tickExpandTimer(){
+        long now = now();
+        if (expandUntil > 0 && now >= expandUntil) {
+            if (paddleOrigW != null) paddle.setWidth(paddleOrigW);
+            expandUntil = 0; paddleOrigW = null;
+        }
+    }
+
+    private void enterServingMode() {
+        balls.clear();
+        balls.add(paddle.x + paddle.w/2.0, paddle.y - 9, 8, 0, 0);
+        serving = true; serveOffset = 0; serveDir = +1;
+    }
+
+    /** Ghi thời gian pha p (từ mốc t0) vào profiler; trả mốc mới. Không có profiler → không gọi nanoTime. */
+    private long lap(PhaseProfiler.Phase p, long t0) {
+        if (profiler == null) return 0;
+        long t = System.nanoTime();
+        profiler.record(p, t - t0);
+        return t;
+    }
+
+    private void resetBallPaddle() {
+        paddle.x = WIDTH / 2.0 - paddle.w / 2.0;
+        balls.clear(); balls.add(WIDTH/2.0, HEIGHT - 60, 8, 0, 0);
+        dropMgr.clear(); projMgr.clear();
+        expandUntil = 0; paddleOrigW = null;
+        serving = true; serveOffset = 0; serveDir = +1;
+    }
+
+    /** Owner của bus (thread mô phỏng): cộng điểm. */
+    private void onEvent(GameEventBus.Type type, int index, int points, int x, int y) { score += points; }
+    private int paddleCenterX() { return (int)(paddle.x + paddle.w / 2.0); }
+
+    private void applyDrop(Pickup.Type t) {
+        events.publish(GameEventBus.Type.PICKUP_CAUGHT, t.ordinal(), 0, paddleCenterX(), (int) paddle.y);
+        switch (t) {
+            case EXPAND       -> activateExpand(10_000);
+            case BONUS_BALLS  -> spawnBonusBalls();
+            case LAZER        -> fireLaser();
+            case GUN          -> enableGun(5_000);
+            case HEART        -> addLife(1);
+        }
+    }
+}
@@ -11,7 +11,7 @@ public class GameWindow extends JFrame {
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setResizable(false);
 
-        GamePanel panel = new GamePanel(800, 600);
+        GamePanel panel = new GamePanel(GamePanel.SCREEN_W, GamePanel.SCREEN_H);
 
         // *** chuẩn bị level trước khi gắn panel lên frame & show ***
         if (startLevelNow) {
@@ -22,5 +22,10 @@ public class GameWindow extends JFrame {
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
+
+        // -Darkanoid.render=active → vẽ chủ động bằng BufferStrategy (cần frame đã hiển thị)
+        if ("active".equalsIgnoreCase(System.getProperty("arkanoid.render"))) {
+            panel.startActiveRendering();
+        }
     }
 }
@@ -0,0 +1,104 @@
+/** cache ảnh có giới hạn bộ nhớ: LRU theo byte, ghim theo màn, thống kê hit/miss*/
+package game;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache ảnh đã decode, an toàn đa luồng (mọi thao tác dưới 1 khoá; decode nằm ngoài khoá ở AssetLoader).
+ * - Tổng byte (ước theo DataBuffer) vượt budget → bỏ ảnh ít dùng gần đây nhất (LRU).
+ * - Màn chơi ghim key (pin) khi vào, thả (release) khi ra: ảnh đang ghim không bị bỏ, kể cả khi vượt budget.
+ *   Ghim trước khi ảnh có trong cache cũng được (ảnh nạp sau vẫn được giữ).
+ */
+public final class ImageCache {
+
+    private static final class Entry {
+        final BufferedImage img;
+        final long bytes;
+        Entry(BufferedImage img, long bytes) { this.img = img; this.bytes = bytes; }
+    }
+
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(64, 0.75f, true); // thứ tự truy cập
+    private final Map<String, Integer> pinCount = new HashMap<>();
+    private final Map<String, Set<String>> scenePins = new HashMap<>();
+    private long bytes, hits, misses, evictions;
+
+    public ImageCache(long budgetBytes) { this.budgetBytes = budgetBytes; }
+
+    /** Ảnh theo key, null nếu chưa có (tính hit/miss). */
+    public synchronized BufferedImage get(String key) {
+        Entry e = map.get(key);
+        if (e == null) { misses++; return null; }
+        hits++;
+        return e.img;
+    }
+
+    /** Như get nhưng không tính hit/miss (tra nội bộ). */
+    public synchronized BufferedImage peek(String key) {
+        Entry e = map.get(key);
+        return e == null ? null : e.img;
+    }
+
+    public synchronized void put(String key, BufferedImage img) {
+        Entry e = new Entry(img, sizeOf(img));
+        Entry old = map.put(key, e);
+        if (old != null) bytes -= old.bytes;
+        bytes += e.bytes;
+        trim();
+    }
+
+    /** Ghim key cho màn scene (ghim lại cùng key trong cùng màn không cộng dồn). */
+    public synchronized void pin(String scene, String key) {
+        if (scenePins.computeIfAbsent(scene, s -> new HashSet<>()).add(key)) {
+            pinCount.merge(key, 1, Integer::sum);
+        }
+    }
+
+    /** Thả mọi key màn scene đã ghim, rồi dọn về budget. */
+    public synchronized void release(String scene) {
+        Set<String> keys = scenePins.remove(scene);
+        if (keys == null) return;
+        for (String k : keys) {
+            pinCount.computeIfPresent(k, (kk, n) -> n > 1 ? n - 1 : null);
+        }
+        trim();
+    }
+
+    /** Bỏ ảnh cũ nhất chưa ghim cho tới khi tổng byte ≤ budget. */
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+        while (bytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (pinCount.containsKey(e.getKey())) continue;
+            bytes -= e.getValue().bytes;
+            evictions++;
+            it.remove();
+        }
+    }
+
+    /** Byte pixel thực của ảnh (mọi bank của DataBuffer). */
+    static long sizeOf(BufferedImage img) {
+        DataBuffer db = img.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    // ============================ thống kê ============================
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+    public synchronized long evictions() { return evictions; }
+    public synchronized long bytes() { return bytes; }
+    public long budgetBytes() { return budgetBytes; }
+    public synchronized int size() { return map.size(); }
+
+    @Override public synchronized String toString() {
+        return String.format("images=%d  %.1f/%.1f MB  hit=%d miss=%d evict=%d  pinned=%d",
+                map.size(), bytes / 1048576.0, budgetBytes / 1048576.0, hits, misses, evictions, pinCount.size());
+    }
+}
@@ -0,0 +1,247 @@
+/** level đã biên dịch: vị trí gạch + quà + lưới dựng sẵn; dạng nhị phân, cache đĩa theo hash nguồn*/
+package game;
+
+import game.play.Pickup;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Layout 1 level cho 1 kích thước màn hình, không đổi sau khi tạo → dùng chung cho mọi LevelManager.
+ * - get(): cache trong RAM; lần đầu đọc levels/levelN.txt, tìm bản nhị phân trong cache đĩa theo hash
+ *   (nguồn + level + kích thước + version), không có thì biên dịch rồi ghi lại.
+ * - Loại gạch (thường/cứng/bất tử) vẫn bốc từ Random của LevelManager mỗi lần load (đúng thứ tự cũ),
+ *   nên layout chỉ giữ phần tất định: ô nào có gạch, toạ độ, quà.
+ * Định dạng: int 'ARKL', int version, int rows, cols, bw, bh, count, rồi count × {int index, x, y; byte quà}
+ * (int chứ không short: bàn lớn > 32767 ô / toạ độ lớn không bị tràn âm thầm rồi ghi hỏng vào cache).
+ */
+final class LevelLayout {
+    private static final int MAGIC = 0x41524B4C; // "ARKL"
+    private static final int VERSION = 2;
+    static final int GAP = 4, TOP = 60, BRICK_H = 20, MARGIN = 16;
+
+    private static final Map<String, LevelLayout> CACHE = new ConcurrentHashMap<>();
+    private static final File DISK_DIR = new File(System.getProperty("arkanoid.levelCache",
+            System.getProperty("java.io.tmpdir") + File.separator + "arkanoid-levels"));
+    private static final Pickup.Type[] PICKUPS = Pickup.Type.values();
+    private static final int[] EMPTY = new int[0];
+
+    final int rows, cols, bw, bh;
+    final int count;            // số gạch có mặt
+    final int[] index, x, y;    // theo thứ tự hàng → cột (thứ tự bốc rng)
+    final byte[] pickup;        // ordinal + 1, 0 = không quà
+    // lưới không gian dựng sẵn (LevelManager chỉ copy khi load)
+    final int cellW, cellH, gridCols, gridRows;
+    final int[][] cellItems;
+    // chỉ mục cột: cột c phủ x ∈ [startX + c*(bw+GAP), +bw], colItems[c] = index gạch theo y tăng dần
+    final int startX;
+    final int[][] colItems;
+
+    private LevelLayout(int rows, int cols, int bw, int bh, int count,
+                        int[] index, int[] x, int[] y, byte[] pickup, int screenW, int screenH) {
+        this.rows = rows; this.cols = cols; this.bw = bw; this.bh = bh; this.count = count;
+        this.index = index; this.x = x; this.y = y; this.pickup = pickup;
+        cellW = Math.max(1, bw + GAP);
+        cellH = Math.max(1, bh + GAP);
+        gridCols = screenW / cellW + 1;
+        gridRows = screenH / cellH + 1;
+        cellItems = buildGrid();
+        startX = (screenW - (cols * bw + (cols - 1) * GAP)) / 2;
+        colItems = buildColumns();
+    }
+
+    int total() { return rows * cols; }
+    Pickup.Type pickupAt(int k) { return pickup[k] == 0 ? null : PICKUPS[pickup[k] - 1]; }
+
+    /** Layout level levelIndex cho màn w×h (RAM → đĩa → biên dịch). */
+    static LevelLayout get(int levelIndex, int w, int h) {
+        String key = levelIndex + "@" + w + "x" + h;
+        LevelLayout cached = CACHE.get(key);
+        if (cached != null) return cached;
+        LevelLayout l = loadOrCompile(levelIndex, w, h);
+        CACHE.putIfAbsent(key, l);
+        return CACHE.get(key);
+    }
+
+    private static LevelLayout loadOrCompile(int levelIndex, int w, int h) {
+        List<String> lines = readSource(levelIndex);
+        File f = new File(DISK_DIR, "level" + (levelIndex + 1) + "-" + hash(lines, levelIndex, w, h) + ".bin");
+        if (f.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+                return read(in, w, h);
+            } catch (IOException e) {
+                System.err.println("[LevelLayout] bad cache " + f.getName() + " (" + e.getMessage() + "), recompiling");
+            }
+        }
+        LevelLayout l = compile(lines, levelIndex, w, h);
+        try {
+            if (DISK_DIR.isDirectory() || DISK_DIR.mkdirs()) {
+                File tmp = new File(DISK_DIR, f.getName() + ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                    l.write(out);
+                }
+                if (!tmp.renameTo(f)) tmp.delete();
+            }
+        } catch (IOException e) {
+            System.err.println("[LevelLayout] cannot write cache (" + e.getMessage() + ")");
+        }
+        return l;
+    }
+
+    /** Đọc resources/levels/levelN.txt (nếu có), fallback sang mặc định. */
+    private static List<String> readSource(int levelIndex) {
+        String path = "levels/level" + (levelIndex + 1) + ".txt";
+        try {
+            return AssetLoader.readLines(path);
+        } catch (Exception ex) {
+            return defaultLayout(levelIndex); // fallback
+        }
+    }
+
+    private static List<String> defaultLayout(int levelIndex) {
+        // 5 layout mặc định, khó dần
+        List<List<String>> presets = List.of(
+                Arrays.asList("1010101010","0101010101","1111111111","0101010101","1010101010"),
+                Arrays.asList("1111111111","1111111111","1111111111","0011111100","0000000000"),
+                Arrays.asList("1110011110","1100000011","1001111001","1100000011","0111111110"),
+                Arrays.asList("1111111111","1000000001","1011111101","1010000101","1111111111"),
+                Arrays.asList("0001111000","0011111100","0111111110","0011111100","0001111000")
+        );
+        return new ArrayList<>(presets.get(levelIndex % presets.size()));
+    }
+
+    private static String hash(List<String> lines, int levelIndex, int w, int h) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(("v" + VERSION + "|" + levelIndex + "|" + w + "x" + h + "|").getBytes(StandardCharsets.UTF_8));
+            for (String s : lines) md.update((s + "\n").getBytes(StandardCharsets.UTF_8));
+            byte[] d = md.digest();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 8; i++) sb.append(String.format("%02x", d[i]));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Biên dịch từ text: gán power-up theo ký tự E/B/L(Z)/G/H, không có thì rải auto (không dồn 1 cột). */
+    static LevelLayout compile(List<String> lines, int levelIndex, int w, int h) {
+        int rows = lines.size();
+        int cols = lines.get(0).length();
+
+        int avail = w - 2 * MARGIN;
+        int bw = (avail - (cols - 1) * GAP) / cols;
+        int bh = BRICK_H;
+        int startX = (w - (cols * bw + (cols - 1) * GAP)) / 2;
+
+        int n = Math.multiplyExact(rows, cols), count = 0;
+        int[] index = new int[n], xs = new int[n], ys = new int[n];
+        byte[] pickup = new byte[n];
+
+        for (int r = 0; r < rows; r++) {
+            String row = lines.get(r);
+            int y = TOP + r * (bh + GAP);
+
+            for (int c = 0; c < cols; c++) {
+                int x = startX + c * (bw + GAP);
+                char ch = c < row.length() ? row.charAt(c) : '0';
+                if (ch == '0' || ch == ' ') continue;
+
+                // 1) power-up do map chỉ định (ưu tiên)
+                Pickup.Type pu = switch (ch) {
+                    case 'E' -> Pickup.Type.EXPAND;
+                    case 'B' -> Pickup.Type.BONUS_BALLS;
+                    case 'L', 'Z' -> Pickup.Type.LAZER; // L/Z đều là laser
+                    case 'G' -> Pickup.Type.GUN;
+                    case 'H' -> Pickup.Type.HEART;      // Heart từ map
+                    default  -> null;                   // ký tự khác: không phải power-up
+                };
+
+                // 2) nếu map không chỉ định thì rải auto: (31*r + 17*c + 13*levelIndex) % 9 == 0 → ~1/9
+                if (pu == null && (31 * r + 17 * c + 13 * levelIndex) % 9 == 0) {
+                    pu = switch ((r * 3 + c * 5 + levelIndex) % 5) {
+                        case 0 -> Pickup.Type.EXPAND;
+                        case 1 -> Pickup.Type.BONUS_BALLS;
+                        case 2 -> Pickup.Type.LAZER;
+                        case 3 -> Pickup.Type.GUN;
+                        default -> Pickup.Type.HEART; // thêm Heart vào rải auto
+                    };
+                }
+
+                index[count] = r * cols + c;
+                xs[count] = x;
+                ys[count] = y;
+                pickup[count] = (byte) (pu == null ? 0 : pu.ordinal() + 1);
+                count++;
+            }
+        }
+        return new LevelLayout(rows, cols, bw, bh, count, index, xs, ys, pickup, w, h);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows); out.writeInt(cols); out.writeInt(bw); out.writeInt(bh); out.writeInt(count);
+        for (int k = 0; k < count; k++) {
+            out.writeInt(index[k]); out.writeInt(x[k]); out.writeInt(y[k]); out.writeByte(pickup[k]);
+        }
+    }
+
+    static LevelLayout read(DataInputStream in, int w, int h) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("not a level v" + VERSION);
+        int rows = in.readInt(), cols = in.readInt(), bw = in.readInt(), bh = in.readInt(), count = in.readInt();
+        if (rows <= 0 || cols <= 0 || count < 0 || count > (long) rows * cols) throw new IOException("corrupt header");
+        int[] index = new int[count], xs = new int[count], ys = new int[count];
+        byte[] pickup = new byte[count];
+        for (int k = 0; k < count; k++) {
+            index[k] = in.readInt(); xs[k] = in.readInt(); ys[k] = in.readInt(); pickup[k] = in.readByte();
+            if (index[k] < 0 || index[k] >= (long) rows * cols || pickup[k] < 0 || pickup[k] > PICKUPS.length) {
+                throw new IOException("corrupt entry " + k);
+            }
+        }
+        return new LevelLayout(rows, cols, bw, bh, count, index, xs, ys, pickup, w, h);
+    }
+
+    /** Mỗi ô lưới giữ index gạch chạm vào ô đó; ô rỗng dùng chung 1 mảng rỗng. */
+    private int[][] buildGrid() {
+        int[][] items = new int[gridCols * gridRows][];
+        int[] cnt = new int[items.length];
+        for (int pass = 0; pass < 2; pass++) { // lượt 1 đếm, lượt 2 điền
+            for (int k = 0; k < count; k++) {
+                int c0 = col(x[k]), c1 = col(x[k] + bw), r0 = row(y[k]), r1 = row(y[k] + bh);
+                for (int r = r0; r <= r1; r++) {
+                    for (int c = c0; c <= c1; c++) {
+                        int cell = r * gridCols + c;
+                        if (pass == 0) cnt[cell]++; else items[cell][cnt[cell]++] = index[k];
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int i = 0; i < items.length; i++) items[i] = cnt[i] == 0 ? EMPTY : new int[cnt[i]];
+                Arrays.fill(cnt, 0);
+            }
+        }
+        return items;
+    }
+
+    /** Duyệt theo thứ tự hàng → cột nên mỗi cột tự có thứ tự y tăng dần. */
+    private int[][] buildColumns() {
+        int[] cnt = new int[cols];
+        for (int k = 0; k < count; k++) cnt[index[k] % cols]++;
+        int[][] items = new int[cols][];
+        for (int c = 0; c < cols; c++) items[c] = cnt[c] == 0 ? EMPTY : new int[cnt[c]];
+        Arrays.fill(cnt, 0);
+        for (int k = 0; k < count; k++) {
+            int c = index[k] % cols;
+            items[c][cnt[c]++] = index[k];
+        }
+        return items;
+    }
+
+    private int col(int px) { return Math.max(0, Math.min(gridCols - 1, Math.floorDiv(px, cellW))); }
+    private int row(int py) { return Math.max(0, Math.min(gridRows - 1, Math.floorDiv(py, cellH))); }
+}
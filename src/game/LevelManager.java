@@ -1,53 +1,87 @@
 /** đọc map + rải powerup theo ký tự hoặc auto*/
 package game;
 
+import game.logic.GameEventBus;
 import game.objects.Brick;
 import game.objects.HardBrick;
 import game.objects.UnbreakableBrick;
+import game.play.DropManager;
 import game.play.Pickup;
 
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Future;
 
 /** Quản lý layout level + nền + tạo mảng gạch. */
 public class LevelManager {
 
     private final int WIDTH, HEIGHT;
+    private final Random rng;     // chọn loại gạch; truyền seed để chạy lại y hệt
     public Brick[] bricks;
     private Image background;
+    private static final String SCENE = "level"; // ảnh nền level đang chơi được ghim trong cache ảnh
+    private boolean loadBackgrounds = true; // tắt khi chạy headless (không cần ảnh nền)
+    private int breakableLeft = 0; // số gạch còn phá được → cleared() O(1)
 
-    // khoảng cách/căn lề
-    private final int gap = 4;
-    private final int top = 60;
+    private static final Color NORMAL_COLOR = new Color(120, 170, 255);
+
+    // lưới không gian đều: mỗi ô giữ index các gạch chạm vào ô đó
+    private int cellW = 1, cellH = 1, gridCols = 0, gridRows = 0;
+    private int[][] cellItems = new int[0][];
+    private int[] cellCount = new int[0];
+    private int[] queryMark = new int[0];
+    private int queryStamp = 0;
+
+    // chỉ mục cột (gạch xếp theo cột cố định): mỗi cột giữ index gạch sống theo y tăng dần → tia dọc chỉ duyệt 1–2 cột
+    private int colStartX = 0, colPitch = 1, colWidth = 0;
+    private int[][] colItems = new int[0][];
+    private int[] colSize = new int[0];
+
+    // level kế nạp sẵn trên thread nền (layout + nền đã scale) → load() chỉ việc lấy ra
+    private static final class Prepared {
+        final LevelLayout layout; final String bgPath; final Image background;
+        Prepared(LevelLayout layout, String bgPath, Image background) {
+            this.layout = layout; this.bgPath = bgPath; this.background = background;
+        }
+    }
+    private Future<Prepared> prefetched;
+    private int prefetchedIndex = -1;
+
+    // ===== bàn vô tận: hàng sinh dần từ rng khi sắp lộ ra, cuộn xuống, qua vạch dropLine thì bỏ =====
+    private static final int ENDLESS_COLS = 12;
+    private static final int ENDLESS_START_ROWS = 6;       // số hàng đã hiện sẵn dưới HUD lúc bắt đầu
+    private static final double SCROLL_PX_PER_TICK = 0.25; // 15 px/s ở 60 tick/s
+    private static final Pickup.Type[] PICKUPS = Pickup.Type.values();
+    private boolean endless = false;
+    private int endlessBw, endlessStartX, pitch, dropLine;
+    private int[] rowY = new int[0];       // y của slot hàng; slot s giữ bricks[s*ENDLESS_COLS ..]
+    private int ringHead, ringCount;       // hàng cũ nhất (thấp nhất) + số hàng đang sống
+    private long rowsGenerated;
+    private double scrollAcc;
 
     public LevelManager(int w, int h) {
+        this(w, h, new Random());
+    }
+
+    public LevelManager(int w, int h, Random rng) {
         this.WIDTH = w;
         this.HEIGHT = h;
+        this.rng = rng;
     }
 
-    /** Tải layout & gán power-up theo ký tự E/B/L(Z)/G/H, nếu map không có thì rải auto (không dồn 1 cột). */
+    /**
+     * Tải level: layout biên dịch sẵn (LevelLayout, power-up theo ký tự E/B/L(Z)/G/H hoặc rải auto) chỉ việc
+     * copy ra mảng gạch + lưới; loại gạch bốc theo rng như cũ.
+     */
     public void load(int levelIndex) {
-        // 1) đọc layout từ resources/levels/levelN.txt (nếu có), fallback sang mặc định
-        List<String> lines;
-        String path = "levels/level" + (levelIndex + 1) + ".txt";
-        try {
-            lines = AssetLoader.readLines(path);
-        } catch (Exception ex) {
-            lines = defaultLayout(levelIndex); // fallback
-        }
+        endless = false;
+        // 1) layout: lấy bản prefetch nếu đúng level, không thì từ cache (RAM → đĩa → biên dịch)
+        Prepared pre = takePrefetched(levelIndex);
+        LevelLayout layout = pre != null ? pre.layout : LevelLayout.get(levelIndex, WIDTH, HEIGHT);
 
-        int rows = lines.size();
-        int cols = lines.get(0).length();
-
-        int avail = WIDTH - 2 * 16;
-        int bw = (avail - (cols - 1) * gap) / cols;
-        int bh = 20;
-        int startX = (WIDTH - (cols * bw + (cols - 1) * gap)) / 2;
-
-        bricks = new Brick[rows * cols];
-        int idx = 0;
+        bricks = new Brick[layout.total()];
+        int bw = layout.bw, bh = layout.bh;
 
         // độ khó tăng dần
         double hardRate  = 0.10 + levelIndex * 0.05; // 10% → 30%
@@ -55,86 +89,365 @@ public class LevelManager {
         hardRate = Math.min(0.35, hardRate);
         unbRate  = Math.min(0.20, unbRate);
 
-        // - Nếu map có ký tự E/B/L/Z/G/H → dùng đúng ký tự.
-        // - Nếu không có, dùng công thức hash theo (r, c) để rải đều (hạn chế dồn 1 cột).
-        for (int r = 0; r < rows; r++) {
-            String row = lines.get(r);
-            int y = top + r * (bh + gap);
-
-            for (int c = 0; c < cols; c++) {
-                int x = startX + c * (bw + gap);
-                char ch = row.charAt(c);
-                if (ch == '0' || ch == ' ') { bricks[idx++] = null; continue; }
-
-                // 1) power-up do map chỉ định (ưu tiên)
-                Pickup.Type puFromMap = null;
-                switch (ch) {
-                    case 'E' -> puFromMap = Pickup.Type.EXPAND;
-                    case 'B' -> puFromMap = Pickup.Type.BONUS_BALLS;
-                    case 'L', 'Z' -> puFromMap = Pickup.Type.LAZER; // L/Z đều là laser
-                    case 'G' -> puFromMap = Pickup.Type.GUN;
-                    case 'H' -> puFromMap = Pickup.Type.HEART;      // Heart từ map
-                    default  -> { /* ký tự khác: không phải power-up */ }
-                }
+        // 2) tạo brick (ưu tiên bất tử > cứng > thường), thứ tự hàng → cột như layout
+        breakableLeft = 0;
+        for (int k = 0; k < layout.count; k++) {
+            int x = layout.x[k], y = layout.y[k];
+            Pickup.Type pu = layout.pickupAt(k);
+            double rnd = rng.nextDouble();
+            Brick b;
+            if (rnd < unbRate) {
+                b = new UnbreakableBrick(x, y, bw, bh);
+            } else if (rnd < unbRate + hardRate) {
+                b = new HardBrick(x, y, bw, bh, pu);
+                breakableLeft++;
+            } else {
+                b = new Brick(x, y, bw, bh, false, NORMAL_COLOR, pu, 1);
+                breakableLeft++;
+            }
+            bricks[layout.index[k]] = b;
+        }
 
-                // 2) nếu map không chỉ định thì rải auto
-                Pickup.Type pu = puFromMap;
-                if (pu == null) {
-                    // (31*r + 17*c + 13*levelIndex) % 9 == 0  → xác suất ~1/9
-                    int sel = (31 * r + 17 * c + 13 * levelIndex) % 9;
-                    if (sel == 0) {
-                        int t = (r * 3 + c * 5 + levelIndex) % 5;
-                        pu = switch (t) {
-                            case 0 -> Pickup.Type.EXPAND;
-                            case 1 -> Pickup.Type.BONUS_BALLS;
-                            case 2 -> Pickup.Type.LAZER;
-                            case 3 -> Pickup.Type.GUN;
-                            default -> Pickup.Type.HEART; // thêm Heart vào rải auto
-                        };
-                    }
-                }
+        // 3) lưới: copy bản dựng sẵn (mỗi ô 1 mảng riêng vì removeBrick sửa tại chỗ)
+        cellW = layout.cellW; cellH = layout.cellH;
+        gridCols = layout.gridCols; gridRows = layout.gridRows;
+        int cells = layout.cellItems.length;
+        cellItems = new int[cells][];
+        cellCount = new int[cells];
+        for (int c = 0; c < cells; c++) {
+            int[] src = layout.cellItems[c];
+            cellItems[c] = src.length == 0 ? src : src.clone();
+            cellCount[c] = src.length;
+        }
+        queryMark = new int[bricks.length];
+        queryStamp = 0;
+
+        // 4) chỉ mục cột: copy bản dựng sẵn
+        colStartX = layout.startX; colPitch = bw + LevelLayout.GAP; colWidth = bw;
+        colItems = new int[layout.cols][];
+        colSize = new int[layout.cols];
+        for (int c = 0; c < layout.cols; c++) {
+            int[] src = layout.colItems[c];
+            colItems[c] = src.length == 0 ? src : src.clone();
+            colSize[c] = src.length;
+        }
+
+        // nền
+        AssetLoader.releaseScene(SCENE); // nền level trước hết ghim
+        background = null;
+        if (loadBackgrounds) {
+            String bgPath = pre != null ? pre.bgPath : backgroundPath(levelIndex);
+            if (bgPath != null) {
+                AssetLoader.pinScaled(SCENE, bgPath, WIDTH, HEIGHT);
+                background = pre != null && pre.background != null ? pre.background : scaledOrNull(bgPath);
+            }
+        }
+    }
 
-                // 3) tạo brick (ưu tiên bất tử > cứng > thường)
-                double rnd = Math.random();
-                if (rnd < unbRate) {
-                    bricks[idx++] = new UnbreakableBrick(x, y, bw, bh);
-                } else if (rnd < unbRate + hardRate) {
-                    bricks[idx++] = new HardBrick(x, y, bw, bh, pu);
-                } else {
-                    Color col = new Color(120, 170, 255);
-                    bricks[idx++] = new Brick(x, y, bw, bh, false, col, pu, 1);
+    /**
+     * Nạp sẵn layout + nền của level levelIndex trên thread nền (gọi khi vừa vào level trước nó).
+     * Không đụng rng → load() sau đó cho cùng kết quả dù có prefetch hay không.
+     */
+    public void prefetch(int levelIndex) {
+        boolean bg = loadBackgrounds;
+        prefetchedIndex = levelIndex;
+        prefetched = AssetPreloader.submit(() -> {
+            String bgPath = bg ? backgroundPath(levelIndex) : null;
+            return new Prepared(LevelLayout.get(levelIndex, WIDTH, HEIGHT), bgPath, bgPath != null ? scaledOrNull(bgPath) : null);
+        });
+    }
+
+    private Prepared takePrefetched(int levelIndex) {
+        Future<Prepared> f = prefetched;
+        if (f == null || prefetchedIndex != levelIndex) return null;
+        prefetched = null; prefetchedIndex = -1;
+        try { return f.get(); } catch (Exception e) { return null; } // chưa xong thì chờ nốt (vẫn nhanh hơn làm lại)
+    }
+
+    /**
+     * Đường xử lý chung khi gạch i bị trúng (bóng, đạn, laser):
+     * trừ HP; vỡ → rơi quà + xoá gạch. Điểm/âm thanh không xử lý ở đây mà publish lên bus
+     * (BRICK_BROKEN 10 điểm, BRICK_HIT 2 điểm) cho các consumer. Trả về true nếu vỡ.
+     */
+    public boolean hitBrick(int i, DropManager dropMgr, GameEventBus events) {
+        Brick b = bricks[i];
+        if (b == null) return false;
+        int cx = b.x + b.w / 2, cy = b.y + b.h / 2;
+        if (!b.onHit()) { events.publish(GameEventBus.Type.BRICK_HIT, i, 2, cx, cy); return false; }
+
+        if (b.getPickup() != null) dropMgr.spawn(b.getPickup(), b.x + b.w / 2.0, b.y + b.h / 2.0);
+        removeBrick(i);
+        breakableLeft--;
+        events.publish(GameEventBus.Type.BRICK_BROKEN, i, 10, cx, cy);
+        return true;
+    }
+
+    /** Xoá gạch khỏi mảng + khỏi lưới. */
+    private void removeBrick(int i) {
+        Brick b = bricks[i];
+        if (b == null) return;
+        bricks[i] = null;
+        int col = (b.x - colStartX) / colPitch;
+        if (col >= 0 && col < colSize.length) { // giữ thứ tự y: dời phần sau lên 1 ô
+            int[] items = colItems[col];
+            for (int k = 0; k < colSize[col]; k++) {
+                if (items[k] != i) continue;
+                System.arraycopy(items, k + 1, items, k, --colSize[col] - k);
+                break;
+            }
+        }
+        int c0 = colOf(b.x), c1 = colOf(b.x + b.w), r0 = rowOf(b.y), r1 = rowOf(b.y + b.h);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * gridCols + c;
+                int[] items = cellItems[cell];
+                for (int k = 0; k < cellCount[cell]; k++) {
+                    if (items[k] != i) continue;
+                    items[k] = items[--cellCount[cell]]; // swap-remove, thứ tự không quan trọng
+                    break;
                 }
             }
         }
+    }
 
-        // nền
-        background = tryBackgroundForLevel(levelIndex);
+    // ---------- chỉ mục cột (laser / tia dọc) ----------
+    // tia dọc chỉ duyệt gạch của 1–2 cột theo y, không phải truy vấn lưới ô cả đường đi
+    /** Số cột gạch của bàn hiện tại. */
+    public int columnCount() { return colSize.length; }
+
+    /** Cột chứa x, kẹp vào [0, columnCount-1] (x nằm ở khe giữa 2 cột → cột bên trái). */
+    public int columnAt(int x) {
+        return Math.max(0, Math.min(colSize.length - 1, Math.floorDiv(x - colStartX, colPitch)));
     }
 
-    /** Level đã dọn sạch (chấp nhận còn gạch bất tử). */
-    public boolean cleared() {
-        for (Brick b : bricks) {
-            if (b != null && !b.isUnbreakable() && !b.isDestroyed()) return false;
+    /** Cột col có phủ đoạn x ∈ [x0, x1] không. */
+    public boolean columnOverlaps(int col, int x0, int x1) {
+        int cx = colStartX + col * colPitch;
+        return x1 >= cx && x0 <= cx + colWidth;
+    }
+
+    /** Số gạch sống trong cột col. */
+    public int columnSize(int col) { return colSize[col]; }
+
+    /**
+     * Index gạch thứ k (0 = trên cùng) trong cột col. hitBrick làm vỡ gạch sẽ xoá nó khỏi cột
+     * → duyệt k giảm dần (dưới lên, như tia bắn từ paddle) để xoá không làm lệch phần chưa duyệt.
+     */
+    public int columnBrick(int col, int k) { return colItems[col][k]; }
+
+    /** Vị trí k đầu tiên trong cột col có đáy gạch (y + h) thấp hơn y (tìm nhị phân theo thứ tự y). */
+    public int columnFirstBelow(int col, int y) {
+        int[] items = colItems[col];
+        int lo = 0, hi = colSize[col];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Brick b = bricks[items[mid]];
+            if (b.y + b.h > y) hi = mid; else lo = mid + 1;
         }
-        return true;
+        return lo;
     }
 
+    // ---------- truy vấn lưới ô ----------
+    /**
+     * Ghi vào out các index gạch nằm trong các ô mà hộp (x, y, w, h) chạm vào,
+     * không trùng, tăng dần (giữ đúng thứ tự duyệt mảng như trước). Trả về TỔNG số ứng viên:
+     * lớn hơn out.length nghĩa là out không đủ chỗ (chỉ có out.length phần tử đầu, chưa sắp xếp)
+     * → người gọi phải nới buffer rồi truy vấn lại, không được dùng kết quả thiếu.
+     * Người gọi vẫn phải tự kiểm tra giao nhau thật sự.
+     */
+    public int queryBricks(int x, int y, int w, int h, int[] out) {
+        if (gridCols == 0 || x + w < 0 || y + h < 0) return 0;
+        int c0 = colOf(x), c1 = colOf(x + w), r0 = rowOf(y), r1 = rowOf(y + h);
+        if (++queryStamp == 0) { Arrays.fill(queryMark, 0); queryStamp = 1; }
+
+        int n = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * gridCols + c;
+                int[] items = cellItems[cell];
+                for (int k = 0; k < cellCount[cell]; k++) {
+                    int idx = items[k];
+                    if (queryMark[idx] == queryStamp) continue;
+                    queryMark[idx] = queryStamp;
+                    if (n < out.length) out[n] = idx;
+                    n++;
+                }
+            }
+        }
+        if (n > out.length) return n; // thiếu chỗ: báo tổng cho người gọi nới buffer
+        // insertion sort: n rất nhỏ (vài gạch quanh bóng/đạn)
+        for (int a = 1; a < n; a++) {
+            int v = out[a], b = a - 1;
+            while (b >= 0 && out[b] > v) { out[b + 1] = out[b]; b--; }
+            out[b + 1] = v;
+        }
+        return n;
+    }
+
+    /** Level đã dọn sạch (chấp nhận còn gạch bất tử). */
+    public boolean cleared() { return !endless && breakableLeft <= 0; }
+
     public Image background() { return background; }
 
+    /** Rời màn chơi: thả ảnh nền đã ghim. */
+    public void releaseAssets() {
+        AssetLoader.releaseScene(SCENE);
+        background = null;
+        prefetched = null; prefetchedIndex = -1;
+    }
+    public void setLoadBackgrounds(boolean on) { loadBackgrounds = on; }
+
+    // ---------- bàn vô tận ----------
+    /**
+     * Bắt đầu bàn vô tận: mảng bricks cố định = ring các hàng đang sống (trên mép màn → vạch bỏ),
+     * nên bộ nhớ và chi phí mỗi tick không tăng theo độ dài ván, dù đã sinh hàng chục nghìn gạch.
+     */
+    public void loadEndless() {
+        endless = true;
+        prefetched = null; prefetchedIndex = -1;
+        int gap = LevelLayout.GAP, bh = LevelLayout.BRICK_H;
+        endlessBw = (WIDTH - 2 * LevelLayout.MARGIN - (ENDLESS_COLS - 1) * gap) / ENDLESS_COLS;
+        endlessStartX = (WIDTH - (ENDLESS_COLS * endlessBw + (ENDLESS_COLS - 1) * gap)) / 2;
+        pitch = bh + gap;
+        dropLine = HEIGHT - 140; // hàng trôi xuống gần paddle thì bỏ
+        int rows = (dropLine + 2 * pitch) / pitch + 2;
+
+        bricks = new Brick[rows * ENDLESS_COLS];
+        rowY = new int[rows];
+        ringHead = 0; ringCount = 0;
+        rowsGenerated = 0; scrollAcc = 0; breakableLeft = 0;
+
+        cellW = endlessBw + gap; cellH = pitch;
+        gridCols = WIDTH / cellW + 1;
+        gridRows = HEIGHT / cellH + 1;
+        cellItems = new int[gridCols * gridRows][];
+        for (int c = 0; c < cellItems.length; c++) cellItems[c] = new int[4];
+        cellCount = new int[cellItems.length];
+        queryMark = new int[bricks.length];
+        queryStamp = 0;
+        colStartX = endlessStartX; colPitch = endlessBw + gap; colWidth = endlessBw;
+        colItems = new int[ENDLESS_COLS][];
+        for (int c = 0; c < ENDLESS_COLS; c++) colItems[c] = new int[rows];
+        colSize = new int[ENDLESS_COLS];
+
+        // hàng đầu tiên nằm dưới cùng, sinh dần lên trên cho tới khi có 1 hàng chờ sẵn trên mép màn
+        int y = LevelLayout.TOP + (ENDLESS_START_ROWS - 1) * pitch;
+        spawnRow(y);
+        fillTop();
+        rebuildGrid();
+
+        AssetLoader.releaseScene(SCENE);
+        background = null;
+        String bgPath = loadBackgrounds ? backgroundPath(0) : null;
+        if (bgPath != null) {
+            AssetLoader.pinScaled(SCENE, bgPath, WIDTH, HEIGHT);
+            background = scaledOrNull(bgPath);
+        }
+    }
+
+    public boolean isEndless() { return endless; }
+    public long rowsGenerated() { return rowsGenerated; }
+
+    /** 1 tick: bàn vô tận cuộn xuống, bỏ hàng qua vạch, sinh hàng mới ở trên. Bàn thường: không làm gì. */
+    public void update() {
+        if (!endless) return;
+        scrollAcc += SCROLL_PX_PER_TICK;
+        int dy = (int) scrollAcc;
+        if (dy == 0) return;
+        scrollAcc -= dy;
+
+        for (int k = 0; k < ringCount; k++) {
+            int s = (ringHead + k) % rowY.length;
+            rowY[s] += dy;
+            for (int c = 0, i = s * ENDLESS_COLS; c < ENDLESS_COLS; c++, i++) {
+                if (bricks[i] != null) bricks[i].y += dy;
+            }
+        }
+        while (ringCount > 0 && rowY[ringHead] > dropLine) dropOldestRow();
+        fillTop();
+        rebuildGrid(); // gạch cùng dịch → dựng lại lưới (O(số gạch đang sống), không cấp phát)
+    }
+
+    /** Sinh thêm hàng phía trên cho tới khi hàng mới nhất đã nằm hẳn trên mép màn. */
+    private void fillTop() {
+        while (ringCount < rowY.length) {
+            int newest = (ringHead + ringCount - 1) % rowY.length;
+            if (rowY[newest] <= -pitch) break;
+            spawnRow(rowY[newest] - pitch);
+        }
+    }
+
+    /** Hàng mới ở y: mật độ / tỉ lệ gạch cứng, bất tử tăng dần theo số hàng đã sinh; quà ~1/9. */
+    private void spawnRow(int y) {
+        int s = (ringHead + ringCount) % rowY.length;
+        ringCount++;
+        rowY[s] = y;
+        long n = rowsGenerated++;
+        double density = Math.min(0.90, 0.45 + n * 0.002);
+        double hardRate = Math.min(0.35, 0.10 + n * 0.001);
+        double unbRate  = Math.min(0.15, 0.02 + n * 0.0005);
+        for (int c = 0, i = s * ENDLESS_COLS; c < ENDLESS_COLS; c++, i++) {
+            bricks[i] = null;
+            if (rng.nextDouble() >= density) continue;
+            int x = endlessStartX + c * (endlessBw + LevelLayout.GAP);
+            Pickup.Type pu = rng.nextInt(9) == 0 ? PICKUPS[rng.nextInt(PICKUPS.length)] : null;
+            double rnd = rng.nextDouble();
+            if (rnd < unbRate) {
+                bricks[i] = new UnbreakableBrick(x, y, endlessBw, LevelLayout.BRICK_H);
+            } else {
+                bricks[i] = rnd < unbRate + hardRate
+                        ? new HardBrick(x, y, endlessBw, LevelLayout.BRICK_H, pu)
+                        : new Brick(x, y, endlessBw, LevelLayout.BRICK_H, false, NORMAL_COLOR, pu, 1);
+                breakableLeft++;
+            }
+        }
+    }
+
+    private void dropOldestRow() {
+        for (int c = 0, i = ringHead * ENDLESS_COLS; c < ENDLESS_COLS; c++, i++) {
+            Brick b = bricks[i];
+            if (b == null) continue;
+            if (!b.isUnbreakable()) breakableLeft--;
+            bricks[i] = null;
+        }
+        ringHead = (ringHead + 1) % rowY.length;
+        ringCount--;
+    }
+
+    /** Xếp lại mọi gạch đang sống vào lưới + chỉ mục cột; mảng ô chỉ nới khi đầy (hiếm), không cấp phát mỗi tick. */
+    private void rebuildGrid() {
+        // cột: duyệt hàng mới nhất (trên cùng) → cũ nhất (dưới cùng) = y tăng dần
+        Arrays.fill(colSize, 0);
+        for (int k = ringCount - 1; k >= 0; k--) {
+            int s = (ringHead + k) % rowY.length;
+            for (int c = 0, i = s * ENDLESS_COLS; c < ENDLESS_COLS; c++, i++) {
+                if (bricks[i] != null) colItems[c][colSize[c]++] = i;
+            }
+        }
+
+        Arrays.fill(cellCount, 0);
+        for (int i = 0; i < bricks.length; i++) {
+            Brick b = bricks[i];
+            if (b == null) continue;
+            int c0 = colOf(b.x), c1 = colOf(b.x + b.w), r0 = rowOf(b.y), r1 = rowOf(b.y + b.h);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int cell = r * gridCols + c;
+                    if (cellCount[cell] == cellItems[cell].length) cellItems[cell] = Arrays.copyOf(cellItems[cell], cellCount[cell] * 2);
+                    cellItems[cell][cellCount[cell]++] = i;
+                }
+            }
+        }
+    }
+
     // ---------- helpers ----------
-    private List<String> defaultLayout(int levelIndex) {
-        // 5 layout mặc định, khó dần
-        List<List<String>> presets = List.of(
-                Arrays.asList("1010101010","0101010101","1111111111","0101010101","1010101010"),
-                Arrays.asList("1111111111","1111111111","1111111111","0011111100","0000000000"),
-                Arrays.asList("1110011110","1100000011","1001111001","1100000011","0111111110"),
-                Arrays.asList("1111111111","1000000001","1011111101","1010000101","1111111111"),
-                Arrays.asList("0001111000","0011111100","0111111110","0011111100","0001111000")
-        );
-        return new ArrayList<>(presets.get(levelIndex % presets.size()));
-    }
-
-    private Image tryBackgroundForLevel(int index) {
+
+    private int colOf(int x) { return Math.max(0, Math.min(gridCols - 1, Math.floorDiv(x, cellW))); }
+    private int rowOf(int y) { return Math.max(0, Math.min(gridRows - 1, Math.floorDiv(y, cellH))); }
+
+
+    /** Ứng viên nền đầu tiên có trong manifest, null nếu không có. */
+    private String backgroundPath(int index) {
         String[] cands = {
                 "backgrounds/Map" + (index+1) + ".png",
                 "backgrounds/Map" + (index+1) + ".jpg",
@@ -144,11 +457,12 @@ public class LevelManager {
                 "backgrounds/level" + (index+1) + ".jpeg",
         };
         for (String p : cands) {
-            try {
-                Image img = AssetLoader.scaled(p, WIDTH, HEIGHT);
-                if (img != null) return img;
-            } catch (Exception ignored) {}
+            if (AssetLoader.exists(p)) return p; // tra manifest, không ném/bắt exception cho ứng viên thiếu
         }
         return null;
     }
+
+    private Image scaledOrNull(String path) {
+        try { return AssetLoader.scaled(path, WIDTH, HEIGHT); } catch (Exception e) { return null; }
+    }
 }
@@ -2,11 +2,17 @@ package game;
 
 import game.AssetLoader.Music;
 
+import java.util.concurrent.Future;
+
 /** Quản lý nhạc: menu và từng level; tiện toggle ON/OFF & pause/resume. */
 public final class MusicHub {
     private Music current;
     private boolean enabled = true;
 
+    // nhạc level kế mở sẵn trên thread nền (đang pause) → sang level chỉ cần resume
+    private Future<Music> prefetched;
+    private int prefetchedIndex = -1;
+
     // nhạc sảnh
     private static final String MENU_ABS =
             "C:\\Users\\Admin\\Downloads\\basic-arkanoid\\src\\resources\\sounds\\music.mp3"; // sảnh chính
@@ -24,31 +30,77 @@ public final class MusicHub {
     }
 
     public void playLevel(int levelIndex0) {
+        Music ready = takePrefetched(levelIndex0);
         stop();
-        if (!enabled) return;
-        int n = levelIndex0 + 1;
-        String abs = LEVEL_DIR_ABS + "\\music" + n + ".mp3";
-        current = AssetLoader.loopMusicFromFile(abs);
-        if (current == null) {
-            String cp = "sounds/soundsoflevel/music" + n + ".mp3";
-            current = AssetLoader.loopMusicFromResource(cp);
+        if (!enabled) { if (ready != null) ready.stop(); return; }
+        if (ready != null) {
+            current = ready;
+            current.resume();
+        } else {
+            current = openLevel(levelIndex0);
         }
-        if (current == null) { // PCM fallback
-            String[] pcm = {
-                    "sounds/soundsoflevel/music" + n + ".wav",
-                    "sounds/soundsoflevel/music" + n + ".aiff",
-                    "sounds/soundsoflevel/music" + n + ".au"
-            };
-            for (String p : pcm) {
-                current = AssetLoader.loopMusicFromResource(p);
-                if (current != null) break;
+        if (levelIndex0 + 1 < GameSimulation.TOTAL_LEVELS) prefetchLevel(levelIndex0 + 1);
+    }
+
+    /** Tìm + mở sẵn nhạc level (thread nền), chưa phát. */
+    public void prefetchLevel(int levelIndex0) {
+        discardPrefetched();
+        if (!enabled) return;
+        prefetchedIndex = levelIndex0;
+        prefetched = AssetPreloader.submit(() -> {
+            for (String p : levelCandidates(levelIndex0)) {
+                Music m = AssetLoader.prepareMusic(p);
+                if (m != null) return m;
             }
-        }
+            return null;
+        });
+    }
+
+    /** Đường dẫn thử theo thứ tự: file tuyệt đối, mp3 trong classpath, rồi PCM. */
+    private static String[] levelCandidates(int levelIndex0) {
+        int n = levelIndex0 + 1;
+        return new String[]{
+                LEVEL_DIR_ABS + "\\music" + n + ".mp3",
+                "sounds/soundsoflevel/music" + n + ".mp3",
+                "sounds/soundsoflevel/music" + n + ".wav",
+                "sounds/soundsoflevel/music" + n + ".aiff",
+                "sounds/soundsoflevel/music" + n + ".au"
+        };
+    }
+
+    private static Music openLevel(int levelIndex0) {
+        String[] cands = levelCandidates(levelIndex0);
+        Music m = AssetLoader.loopMusicFromFile(cands[0]);
+        for (int i = 1; m == null && i < cands.length; i++) m = AssetLoader.loopMusicFromResource(cands[i]);
+        return m;
+    }
+
+    /** Nhạc đã prefetch cho đúng level (chờ nốt nếu thread nền chưa xong), null nếu không có. */
+    private Music takePrefetched(int levelIndex0) {
+        Future<Music> f = prefetched;
+        if (f == null || prefetchedIndex != levelIndex0) return null;
+        prefetched = null; prefetchedIndex = -1;
+        try { return f.get(); } catch (Exception e) { return null; }
+    }
+
+    /** Bỏ bản prefetch chưa dùng: việc dọn xếp sau nó trên cùng thread nền nên không chặn EDT. */
+    private void discardPrefetched() {
+        Future<Music> f = prefetched;
+        prefetched = null; prefetchedIndex = -1;
+        if (f == null) return;
+        AssetPreloader.submit(() -> {
+            Music m = f.get();
+            if (m != null) m.stop();
+            return null;
+        });
     }
 
     public void pause()  { if (current != null) current.pause(); }
     public void resume() { if (current != null && enabled) current.resume(); }
-    public void stop()   { if (current != null) { current.stop(); current = null; } }
+    public void stop()   {
+        discardPrefetched();
+        if (current != null) { current.stop(); current = null; }
+    }
 
     public void setEnabled(boolean on, boolean isMenu, int levelIndex0) {
         enabled = on;
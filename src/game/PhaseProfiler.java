@@ -0,0 +1,178 @@
+/** đo thời gian từng pha của tick/khung hình bằng histogram kiểu HDR (p50/p99/max), ghi file khi thoát*/
+package game;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histogram log-tuyến tính (kiểu HdrHistogram, sai số ≤ ~3%) cho mỗi pha, ghi bằng System.nanoTime:
+ * record() chỉ tăng 1 ô mảng → không cấp phát, gọi được mỗi tick.
+ * - cửa sổ 1 giây: roll() chốt p50/p99/max của giây vừa qua cho overlay (dòng chữ dựng lại 1 lần/giây).
+ * - tổng từ lúc bật: dump() / dumpOnExit() ghi ra file.
+ * Ghi từ thread mô phỏng / vẽ; record/roll/dump cùng khoá của profiler → shutdown hook chụp số liệu nhất quán.
+ */
+public final class PhaseProfiler {
+
+    /** Các pha đo; mô phỏng (theo tick) rồi vẽ (theo khung). */
+    public enum Phase {
+        INPUT("paddle+input"), BALLS("ball move"), BRICKS("brick collide"),
+        DROPS("drops"), PROJECTILES("projectiles"),
+        PAINT_BG("paint bg"), PAINT_BRICKS("paint bricks"), PAINT_ENTITIES("paint entities"), PAINT_HUD("paint hud");
+
+        public final String label;
+        Phase(String label) { this.label = label; }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    /** Profiler đã gọi dumpOnExit (mỗi phiên GamePanel 1 cái); shutdown hook 1 cái cho cả JVM ghi mọi profiler có số liệu. */
+    private static final List<PhaseProfiler> EXIT_TARGETS = new ArrayList<>();
+    private static boolean exitHooked;
+
+    private final Histogram[] window = new Histogram[PHASES.length], total = new Histogram[PHASES.length];
+    private final long[] p50 = new long[PHASES.length], p99 = new long[PHASES.length], max = new long[PHASES.length];
+    private String[] lines = new String[0];
+    private long windowStart = -1;
+    private File exitFile;
+
+    public PhaseProfiler() {
+        for (int i = 0; i < PHASES.length; i++) { window[i] = new Histogram(); total[i] = new Histogram(); }
+    }
+
+    public synchronized void record(Phase p, long nanos) {
+        window[p.ordinal()].record(nanos);
+        total[p.ordinal()].record(nanos);
+    }
+
+    /** Gọi mỗi khung; hết cửa sổ 1 giây thì chốt số liệu hiển thị và bắt đầu cửa sổ mới. */
+    public synchronized void roll(long nowNanos) {
+        if (windowStart < 0) windowStart = nowNanos;
+        if (nowNanos - windowStart < WINDOW_NANOS) return;
+        windowStart = nowNanos;
+        String[] out = new String[PHASES.length + 1];
+        out[0] = String.format("%-15s %8s %8s %8s", "phase (us)", "p50", "p99", "max");
+        for (int i = 0; i < PHASES.length; i++) {
+            Histogram h = window[i];
+            p50[i] = h.percentile(0.50); p99[i] = h.percentile(0.99); max[i] = h.max;
+            out[i + 1] = String.format("%-15s %8.1f %8.1f %8.1f", PHASES[i].label, p50[i] / 1e3, p99[i] / 1e3, max[i] / 1e3);
+            h.clear();
+        }
+        lines = out;
+    }
+
+    /** Bảng p50/p99/max (µs) của giây vừa qua; rỗng trước khi hết giây đầu. */
+    public String[] lines() { return lines; }
+
+    public long p50(Phase p) { return p50[p.ordinal()]; }
+    public long p99(Phase p) { return p99[p.ordinal()]; }
+    public long max(Phase p) { return max[p.ordinal()]; }
+
+    /** Ghi bảng tổng (từ lúc bật) ra file: số mẫu, p50/p90/p99/p99.9/max theo µs. */
+    public void dump(File f) throws IOException {
+        try (PrintWriter w = new PrintWriter(f, "UTF-8")) { write(w); }
+    }
+
+    private synchronized void write(PrintWriter w) {
+        w.printf("%-15s %10s %9s %9s %9s %9s %9s%n", "phase (us)", "count", "p50", "p90", "p99", "p99.9", "max");
+        for (int i = 0; i < PHASES.length; i++) {
+            Histogram h = total[i];
+            w.printf("%-15s %10d %9.1f %9.1f %9.1f %9.1f %9.1f%n", PHASES[i].label, h.count,
+                    h.percentile(0.50) / 1e3, h.percentile(0.90) / 1e3, h.percentile(0.99) / 1e3,
+                    h.percentile(0.999) / 1e3, h.max / 1e3);
+        }
+    }
+
+    private synchronized boolean used() {
+        for (Histogram h : total) if (h.count > 0) return true;
+        return false;
+    }
+
+    /**
+     * Ghi file khi JVM thoát (chỉ nếu đã đo được gì). Mỗi GamePanel mới gọi lại: không thêm hook, không thay
+     * profiler cũ đã có số liệu (phiên trước "về menu" vẫn được ghi); chỉ bỏ profiler cũ chưa đo gì.
+     * Nhiều phiên cùng file → ghi nối tiếp, mỗi phiên 1 bảng.
+     */
+    public void dumpOnExit(File f) {
+        exitFile = f;
+        synchronized (EXIT_TARGETS) {
+            EXIT_TARGETS.removeIf(p -> !p.used());
+            EXIT_TARGETS.add(this);
+            if (exitHooked) return;
+            exitHooked = true;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(PhaseProfiler::dumpAll, "profile-dump"));
+    }
+
+    private static void dumpAll() {
+        Map<File, List<PhaseProfiler>> byFile = new LinkedHashMap<>();
+        synchronized (EXIT_TARGETS) {
+            for (PhaseProfiler p : EXIT_TARGETS) {
+                if (p.used()) byFile.computeIfAbsent(p.exitFile, k -> new ArrayList<>()).add(p);
+            }
+        }
+        for (Map.Entry<File, List<PhaseProfiler>> e : byFile.entrySet()) {
+            File f = e.getKey();
+            List<PhaseProfiler> list = e.getValue();
+            try (PrintWriter w = new PrintWriter(f, "UTF-8")) {
+                for (int k = 0; k < list.size(); k++) {
+                    if (list.size() > 1) w.printf("%s# session %d%n", k == 0 ? "" : System.lineSeparator(), k + 1);
+                    list.get(k).write(w);
+                }
+                System.out.println("[PhaseProfiler] wrote " + f.getAbsolutePath());
+            } catch (IOException ex) {
+                System.err.println("[PhaseProfiler] cannot write " + f + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bucket: giá trị < 2·SUB giữ nguyên; lớn hơn thì giữ SUB_BITS bit cao nhất (shift = log2(v) - SUB_BITS)
+     * → index = shift·SUB + (v >> shift). Trần 2^40 ns (~18 phút).
+     */
+    static final class Histogram {
+        private static final int SUB_BITS = 5, SUB = 1 << SUB_BITS;
+        private static final long LIMIT = (1L << 40) - 1;
+        private static final int BUCKETS = (40 - SUB_BITS) * SUB + 2 * SUB;
+
+        final long[] counts = new long[BUCKETS];
+        long count, max;
+
+        void record(long v) {
+            if (v < 0) v = 0; else if (v > LIMIT) v = LIMIT;
+            counts[index(v)]++;
+            count++;
+            if (v > max) max = v;
+        }
+
+        /** Giá trị lớn nhất cùng bucket với phân vị q (0..1); 0 nếu rỗng. */
+        long percentile(double q) {
+            if (count == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(q * count)), seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(max, upper(i));
+            }
+            return max;
+        }
+
+        void clear() { Arrays.fill(counts, 0); count = 0; max = 0; }
+
+        static int index(long v) {
+            if (v < 2 * SUB) return (int) v;
+            int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+            return shift * SUB + (int) (v >> shift);
+        }
+
+        static long upper(int i) {
+            if (i < 2 * SUB) return i;
+            int shift = i / SUB - 1;
+            return ((long) (i - shift * SUB) << shift) + (1L << shift) - 1;
+        }
+    }
+}
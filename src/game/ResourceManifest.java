@@ -0,0 +1,155 @@
+/** bảng tên resource → vị trí, dựng 1 lần lúc khởi động thay cho dò file mỗi lần load*/
+package game;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Manifest resource: quét 1 lần (thư mục/jar trên classpath, rồi các gốc filesystem cũ của AssetLoader)
+ * → map tên logic ("backgrounds/Map1.jpg") sang vị trí. Tra cứu sau đó chỉ là 1 lần hash, không stat file.
+ * Thứ tự ưu tiên giữ như AssetLoader.open cũ: classpath trước, rồi thư mục hiện hành, src/, src/resources/, ...
+ * Thư mục hiện hành không quét toàn bộ: chỉ các thư mục con trùng tên thư mục resource đã biết (images/, sounds/...);
+ * tên không có trong manifest được hỏi classloader rồi thử đúng file đó trong thư mục hiện hành (1 lần, như bước
+ * "đường dẫn trực tiếp" cũ) và nhớ cả kết quả âm.
+ * Có bundle (-Darkanoid.bundle, mặc định assets.pack) → chỉ 1 lần open + map file đó, không quét thư mục.
+ * Thời gian dựng manifest chỉ in ra khi bật -Darkanoid.assetLog=true.
+ */
+final class ResourceManifest {
+
+    /** Vị trí 1 resource: entry trong bundle, file trên đĩa hoặc URL (entry trong jar). */
+    static final class Location {
+        final File file;
+        final URL url;
+        final AssetBundle bundle;
+        final String name;
+        Location(File file, URL url) { this(file, url, null, null); }
+        Location(File file, URL url, AssetBundle bundle, String name) {
+            this.file = file; this.url = url; this.bundle = bundle; this.name = name;
+        }
+        InputStream open() throws IOException {
+            if (bundle != null) return bundle.stream(name);
+            return file != null ? new FileInputStream(file) : url.openStream();
+        }
+    }
+
+    private static final Location MISSING = new Location(null, null);
+    private static final String BUNDLE = System.getProperty("arkanoid.bundle", "assets.pack");
+    private static final String[] FS_ROOTS = { "src/", "src/resources/", "resources/", "src/main/resources/" };
+    private static final int MAX_DEPTH = 8;
+    private static final boolean LOG = Boolean.getBoolean("arkanoid.assetLog");
+
+    private static final class Holder { static final ResourceManifest INSTANCE = new ResourceManifest(); }
+
+    private final Map<String, Location> entries = new ConcurrentHashMap<>();
+
+    static ResourceManifest get() { return Holder.INSTANCE; }
+
+    private ResourceManifest() {
+        long t0 = System.nanoTime();
+        if (indexBundle()) {
+            if (LOG) System.out.printf("[ResourceManifest] %d resources from bundle in %.1f ms%n", entries.size(), (System.nanoTime() - t0) / 1e6);
+            return;
+        }
+        // 1) classpath
+        for (String cp : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (cp.isEmpty()) continue;
+            File f = new File(cp);
+            if (f.isDirectory()) walk(f, "", 0, entries);
+            else if (f.isFile() && cp.endsWith(".jar")) indexJar(f);
+        }
+        // các gốc filesystem quét trước vào map riêng chỉ để biết tên thư mục resource
+        Map<String, Location> roots = new HashMap<>();
+        for (String root : FS_ROOTS) {
+            File dir = new File(root);
+            if (dir.isDirectory()) walk(dir, "", 0, roots);
+        }
+        // 2) thư mục hiện hành: chỉ các thư mục con trùng tên thư mục resource đã biết (không quét cả ổ đĩa)
+        Set<String> tops = new HashSet<>();
+        for (String name : entries.keySet()) addTop(tops, name);
+        for (String name : roots.keySet()) addTop(tops, name);
+        for (String top : tops) {
+            File dir = new File(top);
+            if (dir.isDirectory()) walk(dir, top + "/", 1, entries);
+        }
+        // 3) src/, src/resources/, ... (ưu tiên sau thư mục hiện hành)
+        for (Map.Entry<String, Location> e : roots.entrySet()) entries.putIfAbsent(e.getKey(), e.getValue());
+        if (LOG) System.out.printf("[ResourceManifest] %d resources indexed in %.1f ms%n", entries.size(), (System.nanoTime() - t0) / 1e6);
+    }
+
+    private static void addTop(Set<String> tops, String name) {
+        int slash = name.indexOf('/');
+        if (slash > 0) tops.add(name.substring(0, slash));
+    }
+
+    /** Vị trí theo tên logic (đã chuẩn hoá), null nếu không có. */
+    Location find(String name) {
+        Location loc = entries.get(name);
+        if (loc == null) {
+            URL url = ResourceManifest.class.getClassLoader().getResource(name);
+            File direct = url == null ? new File(name) : null; // như bước "đường dẫn trực tiếp" của open cũ
+            loc = url != null ? new Location(null, url)
+                    : direct.isFile() ? new Location(direct, null) : MISSING;
+            Location prev = entries.putIfAbsent(name, loc);
+            if (prev != null) loc = prev;
+        }
+        return loc == MISSING ? null : loc;
+    }
+
+    boolean contains(String name) { return find(name) != null; }
+
+    private boolean indexBundle() {
+        File f = new File(BUNDLE);
+        if (!f.isFile()) return false;
+        try {
+            AssetBundle b = AssetBundle.open(f);
+            for (String n : b.names()) entries.put(n, new Location(null, null, b, n));
+            return true;
+        } catch (IOException e) {
+            System.err.println("[ResourceManifest] bad bundle " + f + " (" + e.getMessage() + "), scanning folders");
+            return false;
+        }
+    }
+
+    private static void walk(File dir, String prefix, int depth, Map<String, Location> into) {
+        if (depth > MAX_DEPTH) return;
+        File[] kids = dir.listFiles();
+        if (kids == null) return;
+        for (File k : kids) {
+            String n = k.getName();
+            if (n.startsWith(".")) continue;
+            if (k.isDirectory()) walk(k, prefix + n + "/", depth + 1, into);
+            else if (isResource(n)) into.putIfAbsent(prefix + n, new Location(k, null));
+        }
+    }
+
+    private void indexJar(File jar) {
+        try (JarFile jf = new JarFile(jar)) {
+            String base = "jar:" + jar.toURI().toURL() + "!/";
+            Enumeration<JarEntry> en = jf.entries();
+            while (en.hasMoreElements()) {
+                JarEntry e = en.nextElement();
+                String n = e.getName();
+                if (e.isDirectory() || n.startsWith("META-INF/") || !isResource(n)) continue;
+                entries.putIfAbsent(n, new Location(null, new URL(base + n)));
+            }
+        } catch (IOException e) {
+            System.err.println("[ResourceManifest] skip jar " + jar + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /** Bỏ mã nguồn / bytecode – chỉ giữ file tài nguyên. */
+    private static boolean isResource(String name) {
+        return !name.endsWith(".class") && !name.endsWith(".java");
+    }
+}
@@ -0,0 +1,185 @@
+/** hiệu ứng âm thanh: mẫu decode sẵn, trộn phần mềm vào 1 SourceDataLine, giới hạn số voice*/
+package game;
+
+import game.logic.GameEventBus;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Bộ trộn SFX độ trễ thấp:
+ * - Mẫu ngắn decode 1 lần vào short[] (mono 16-bit 44.1 kHz): sounds/sfx/&lt;tên&gt;.wav nếu có, không thì tổng hợp tiếng bíp.
+ * - 1 thread "sfx-mixer" trộn từng khối BLOCK frame vào 1 SourceDataLine duy nhất (không mở line mới mỗi tiếng).
+ * - VOICES voice cố định; hết voice thì cướp voice cũ nhất.
+ * - Nguồn tiếng duy nhất là GameEventBus: listen(bus) đăng ký, mixer tự poll sự kiện gameplay (gạch, quà, mất bóng,
+ *   dội paddle, bắn đạn/laser) mỗi khối trộn trên thread của nó → thread game không gọi âm thanh, không chặn.
+ *   Nhiều sự kiện cùng loại trong 1 khối được gộp (tối đa MAX_PER_BLOCK voice) → laser xuyên cột / súng bắn dày
+ *   không chiếm hết voice. Rời màn chơi → unlisten(bus), game bỏ dở không còn kêu.
+ * Chưa start (headless, tắt bằng -Darkanoid.sfx=false) hoặc không có thiết bị âm thanh → không poll, không phát gì.
+ */
+public final class SfxMixer {
+
+    /** Các hiệu ứng game phát. */
+    public enum Sfx { BRICK_HIT, BRICK_BREAK, PADDLE, BULLET, LASER, PICKUP, LIFE_LOST }
+
+    private static final float RATE = 44_100f;
+    private static final AudioFormat FORMAT = new AudioFormat(RATE, 16, 1, true, false);
+    private static final int BLOCK = 256;          // ~5.8 ms mỗi khối trộn
+    private static final int LINE_FRAMES = BLOCK * 4; // ~23 ms đệm trong line
+    private static final int VOICES = 12;
+    private static final int MAX_PER_BLOCK = 2;
+    private static final Sfx[] ALL = Sfx.values();
+
+    private static boolean started = false;
+    private static volatile Subscription sub; // bus + con trỏ đổi cùng lúc (1 lần ghi volatile)
+    private static final GameEventBus.Handler ON_EVENT = SfxMixer::onEvent;
+
+    // chỉ thread mixer đụng tới
+    private static final int[] pending = new int[ALL.length]; // số lần cần phát mỗi loại trong khối tới
+    private static final short[][] samples = new short[ALL.length][];
+    private static final short[][] voiceSample = new short[VOICES][];
+    private static final int[] voicePos = new int[VOICES];
+    private static final long[] voiceStamp = new long[VOICES];
+    private static long stamp = 0;
+
+    private SfxMixer() {}
+
+    private static final class Subscription {
+        final GameEventBus bus;
+        final GameEventBus.Cursor cursor;
+        Subscription(GameEventBus bus) { this.bus = bus; this.cursor = bus.subscribe(); }
+    }
+
+    /** Khởi động mixer 1 lần (mở line + decode mẫu trên thread riêng, không chặn EDT). */
+    public static synchronized void startOnce() {
+        if (started || !Boolean.parseBoolean(System.getProperty("arkanoid.sfx", "true"))) return;
+        started = true;
+        Thread t = new Thread(SfxMixer::run, "sfx-mixer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        t.start();
+    }
+
+    /** Nghe sự kiện của bus (thay bus cũ nếu có); mixer poll trên thread của nó. */
+    public static synchronized void listen(GameEventBus b) {
+        sub = new Subscription(b);
+    }
+
+    /** Thôi nghe b (màn chơi đóng); bus khác đã listen sau đó thì giữ nguyên. */
+    public static synchronized void unlisten(GameEventBus b) {
+        Subscription s = sub;
+        if (s != null && s.bus == b) sub = null;
+    }
+
+    private static void onEvent(GameEventBus.Type type, int index, int points, int x, int y) {
+        switch (type) {
+            case BRICK_HIT     -> pending[Sfx.BRICK_HIT.ordinal()]++;
+            case BRICK_BROKEN  -> pending[Sfx.BRICK_BREAK.ordinal()]++;
+            case PICKUP_CAUGHT -> pending[Sfx.PICKUP.ordinal()]++;
+            case BALL_LOST     -> pending[Sfx.LIFE_LOST.ordinal()]++;
+            case PADDLE_HIT    -> pending[Sfx.PADDLE.ordinal()]++;
+            case BULLET_FIRED  -> pending[Sfx.BULLET.ordinal()]++;
+            case LASER_FIRED   -> pending[Sfx.LASER.ordinal()]++;
+            case LEVEL_CLEARED -> {}
+        }
+    }
+
+    private static void run() {
+        SourceDataLine line;
+        try {
+            for (Sfx s : ALL) samples[s.ordinal()] = load(s);
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, LINE_FRAMES * 2);
+        } catch (Exception | LinkageError e) {
+            System.err.println("[SFX] disabled: " + e.getMessage());
+            return;
+        }
+        int[] acc = new int[BLOCK];
+        byte[] out = new byte[BLOCK * 2];
+        line.start();
+        while (true) {
+            startPending();
+            Arrays.fill(acc, 0);
+            for (int v = 0; v < VOICES; v++) {
+                short[] s = voiceSample[v];
+                if (s == null) continue;
+                int p = voicePos[v], n = Math.min(BLOCK, s.length - p);
+                for (int i = 0; i < n; i++) acc[i] += s[p + i];
+                p += n;
+                if (p >= s.length) voiceSample[v] = null; else voicePos[v] = p;
+            }
+            for (int i = 0; i < BLOCK; i++) {
+                int x = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, acc[i]));
+                out[2 * i] = (byte) x;
+                out[2 * i + 1] = (byte) (x >> 8);
+            }
+            line.write(out, 0, out.length); // chặn tới khi line có chỗ → nhịp của thread mixer
+        }
+    }
+
+    /** Lấy yêu cầu từ bộ đếm, gán voice (voice trống trước, hết thì cướp voice cũ nhất). */
+    private static void startPending() {
+        Subscription s = sub;
+        if (s != null) s.bus.poll(s.cursor, ON_EVENT, Integer.MAX_VALUE);
+        for (int id = 0; id < ALL.length; id++) {
+            int n = Math.min(MAX_PER_BLOCK, pending[id]);
+            pending[id] = 0;
+            for (int k = 0; k < n; k++) {
+                int v = 0;
+                for (int i = 0; i < VOICES; i++) {
+                    if (voiceSample[i] == null) { v = i; break; }
+                    if (voiceStamp[i] < voiceStamp[v]) v = i;
+                }
+                voiceSample[v] = samples[id];
+                voicePos[v] = 0;
+                voiceStamp[v] = ++stamp;
+            }
+        }
+    }
+
+    /** sounds/sfx/&lt;tên thường&gt;.wav (convert về FORMAT), không có/không convert được → tiếng tổng hợp. */
+    private static short[] load(Sfx s) {
+        String path = "sounds/sfx/" + s.name().toLowerCase() + ".wav";
+        if (AssetLoader.exists(path)) {
+            try (InputStream raw = AssetLoader.open(path);
+                 AudioInputStream src = AudioSystem.getAudioInputStream(new BufferedInputStream(raw));
+                 AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT, src)) {
+                byte[] b = pcm.readAllBytes();
+                short[] out = new short[b.length / 2];
+                for (int i = 0; i < out.length; i++) out[i] = (short) ((b[2 * i] & 0xFF) | (b[2 * i + 1] << 8));
+                return out;
+            } catch (Exception e) {
+                System.err.println("[SFX] " + path + " not usable (" + e.getMessage() + "), using synth");
+            }
+        }
+        return switch (s) {
+            case BRICK_HIT   -> tone(880, 880, 40, 0.25, 0);
+            case BRICK_BREAK -> tone(660, 330, 90, 0.30, 0.35);
+            case PADDLE      -> tone(440, 520, 50, 0.30, 0);
+            case BULLET      -> tone(1500, 900, 35, 0.15, 0.2);
+            case LASER       -> tone(1800, 200, 220, 0.25, 0);
+            case PICKUP      -> tone(520, 1040, 160, 0.30, 0);
+            case LIFE_LOST   -> tone(400, 100, 450, 0.35, 0.1);
+        };
+    }
+
+    /** Tiếng quét tần số f0 → f1 trong ms mili giây, tắt dần; noise: tỉ lệ trộn nhiễu (seed cố định). */
+    private static short[] tone(double f0, double f1, int ms, double vol, double noise) {
+        int n = (int) (RATE * ms / 1000);
+        short[] out = new short[n];
+        double phase = 0;
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < n; i++) {
+            double t = (double) i / n;
+            phase += 2 * Math.PI * (f0 + (f1 - f0) * t) / RATE;
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            double nz = ((seed >>> 40) / (double) (1L << 24)) * 2 - 1;
+            double env = Math.min(1, i / (RATE * 0.002)) * Math.pow(1 - t, 2); // 2 ms attack rồi tắt dần
+            double x = ((1 - noise) * Math.signum(Math.sin(phase)) * 0.6 + noise * nz) * env * vol;
+            out[i] = (short) (x * Short.MAX_VALUE);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,196 @@
+/** nhạc phát kiểu stream: decode dần vào ring buffer nhỏ → SourceDataLine*/
+package game;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Phát lặp 1 bài mà không decode cả bài vào Clip:
+ * - thread "music-decode" đọc AudioInputStream (MP3 → PCM qua mp3spi) ghi vào ring buffer ~0.4 s,
+ *   hết bài thì mở lại nguồn (loop liền mạch), ring đầy thì chờ.
+ * - thread "music-play" lấy từ ring ghi vào SourceDataLine.
+ * pause = line.stop(): dữ liệu còn trong line/ring giữ nguyên → resume phát tiếp đúng vị trí.
+ * prepare(): mở + decode sẵn đầu bài nhưng chưa phát (prefetch level kế) → resume() là phát ngay.
+ */
+final class StreamingMusic implements AssetLoader.Music {
+
+    /** Mở lại nguồn mỗi vòng lặp. */
+    interface Source { InputStream open() throws IOException; }
+
+    private static final int RING_BYTES = 64 * 1024; // ~0.37 s stereo 16-bit 44.1 kHz
+    private static final int CHUNK = 4096;
+
+    private final Source source;
+    private final SourceDataLine line;
+    private final int frameSize;
+    private final Ring ring = new Ring(RING_BYTES);
+    private final Object pauseLock = new Object();
+    private volatile boolean running = true, paused = false;
+
+    private StreamingMusic(Source source, AudioInputStream first, SourceDataLine line, boolean startPaused) {
+        this.source = source;
+        this.line = line;
+        this.paused = startPaused;
+        this.frameSize = Math.max(1, first.getFormat().getFrameSize());
+        Thread decoder = new Thread(() -> decodeLoop(first), "music-decode");
+        Thread player = new Thread(this::playLoop, "music-play");
+        decoder.setDaemon(true);
+        player.setDaemon(true);
+        if (!startPaused) line.start();
+        decoder.start();
+        player.start();
+    }
+
+    /** Mở nguồn + line (chỉ đọc header, không decode cả bài) rồi bắt đầu phát lặp. Lỗi → ném để caller fallback. */
+    static StreamingMusic loop(Source source) throws Exception {
+        return open(source, false);
+    }
+
+    /** Như loop nhưng đứng ở trạng thái pause: ring được decode đầy sẵn, resume() mới phát. */
+    static StreamingMusic prepare(Source source) throws Exception {
+        return open(source, true);
+    }
+
+    private static StreamingMusic open(Source source, boolean startPaused) throws Exception {
+        AudioInputStream first = pcm(source.open());
+        try {
+            AudioFormat fmt = first.getFormat();
+            SourceDataLine line = AudioSystem.getSourceDataLine(fmt);
+            int lineBytes = (int) (fmt.getFrameRate() / 10) * fmt.getFrameSize(); // ~100 ms trong line
+            line.open(fmt, Math.max(lineBytes, CHUNK));
+            return new StreamingMusic(source, first, line, startPaused);
+        } catch (Exception e) {
+            first.close();
+            throw e;
+        }
+    }
+
+    /** Stream PCM_SIGNED 16-bit (convert nếu cần – MP3 cần mp3spi + tritonus_share). */
+    private static AudioInputStream pcm(InputStream raw) throws IOException {
+        try {
+            AudioInputStream ais = AudioSystem.getAudioInputStream(new BufferedInputStream(raw));
+            AudioFormat base = ais.getFormat();
+            if (base.getEncoding() == AudioFormat.Encoding.PCM_SIGNED) return ais;
+            AudioFormat target = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    base.getSampleRate(),
+                    16,
+                    base.getChannels(),
+                    base.getChannels() * 2,
+                    base.getSampleRate(),
+                    false
+            );
+            return AudioSystem.getAudioInputStream(target, ais);
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            raw.close();
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private void decodeLoop(AudioInputStream in) {
+        byte[] buf = new byte[CHUNK - CHUNK % frameSize];
+        long passBytes = 0;
+        try {
+            while (running) {
+                int n = in.read(buf, 0, buf.length);
+                if (n < 0) {
+                    if (passBytes == 0) break; // bài rỗng: không lặp vô hạn
+                    in.close();
+                    in = pcm(source.open());
+                    passBytes = 0;
+                    continue;
+                }
+                passBytes += n;
+                if (n > 0 && !ring.write(buf, 0, n)) break;
+            }
+        } catch (IOException e) {
+            if (running) System.err.println("[AUDIO] stream decode stopped: " + e.getMessage());
+        } catch (InterruptedException ignored) {
+        } finally {
+            try { in.close(); } catch (IOException ignored) {}
+            ring.finish();
+        }
+    }
+
+    private void playLoop() {
+        byte[] buf = new byte[CHUNK];
+        try {
+            while (running) {
+                synchronized (pauseLock) { while (paused && running) pauseLock.wait(); }
+                int n = ring.read(buf, buf.length, frameSize);
+                if (n < 0) break;
+                line.write(buf, 0, n); // line đầy (hoặc đang pause) → chờ tại đây, không mất dữ liệu
+            }
+            if (running) line.drain();
+        } catch (InterruptedException ignored) {
+        } finally {
+            running = false;
+            line.close();
+        }
+    }
+
+    @Override public void pause() {
+        if (!running || paused) return;
+        paused = true;
+        line.stop();
+    }
+
+    @Override public void resume() {
+        if (!running || !paused) return;
+        line.start();
+        synchronized (pauseLock) { paused = false; pauseLock.notifyAll(); }
+    }
+
+    @Override public void stop() {
+        running = false;
+        ring.close();
+        synchronized (pauseLock) { pauseLock.notifyAll(); }
+        try { line.stop(); line.flush(); } catch (Exception ignored) {}
+        line.close();
+    }
+
+    @Override public boolean isRunning() { return running && !paused; }
+
+    /** Ring buffer byte 1 producer / 1 consumer, chặn bằng wait/notify. */
+    private static final class Ring {
+        private final byte[] data;
+        private int head, size;
+        private boolean eof, closed;
+
+        Ring(int capacity) { data = new byte[capacity]; }
+
+        /** false nếu ring đã đóng (stop). */
+        synchronized boolean write(byte[] src, int off, int len) throws InterruptedException {
+            while (len > 0) {
+                while (size == data.length && !closed) wait();
+                if (closed) return false;
+                int tail = (head + size) % data.length;
+                int n = Math.min(len, Math.min(data.length - size, data.length - tail));
+                System.arraycopy(src, off, data, tail, n);
+                size += n; off += n; len -= n;
+                notifyAll();
+            }
+            return true;
+        }
+
+        /** Đọc tối đa max byte, bội số align; -1 khi đã đóng hoặc decoder xong và ring cạn. */
+        synchronized int read(byte[] dst, int max, int align) throws InterruptedException {
+            while (size < align && !eof && !closed) wait();
+            if (closed || size < align) return -1;
+            int n = Math.min(size, max);
+            n -= n % align;
+            int first = Math.min(n, data.length - head);
+            System.arraycopy(data, head, dst, 0, first);
+            System.arraycopy(data, 0, dst, first, n - first);
+            head = (head + n) % data.length;
+            size -= n;
+            notifyAll();
+            return n;
+        }
+
+        synchronized void finish() { eof = true; notifyAll(); }
+        synchronized void close() { closed = true; notifyAll(); }
+    }
+}
@@ -0,0 +1,158 @@
+/** benchmark headless cho các đường nóng: va chạm bóng, đạn, laser, load level, ảnh, vẽ gạch*/
+package game.bench;
+
+import game.AssetLoader;
+import game.LevelManager;
+import game.logic.BallPhysics;
+import game.logic.GameEventBus;
+import game.objects.BallPool;
+import game.objects.Brick;
+import game.objects.Paddle;
+import game.play.DropManager;
+import game.play.ProjectileManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Bộ đo hiệu năng chạy không cần màn hình (headless), chạy từ thư mục gốc project:
+ *   java -cp out/production game.bench.HotPathBench [filter]
+ * filter: chỉ chạy benchmark có tên chứa chuỗi này (vd. "ball", "laser").
+ * Mỗi mẫu: setup (không tính giờ) → op (tính giờ); in p50/min/max theo µs.
+ */
+public final class HotPathBench {
+
+    /** Phép đo; trả checksum để JIT không bỏ phép tính. */
+    private interface Op { long run(); }
+
+    private static final int W = 800, H = 600;
+    private static long sink;
+    private static long score;
+    private static final GameEventBus EVENTS = new GameEventBus(1024, (t, i, p, x, y) -> score += p);
+
+    private HotPathBench() {}
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String filter = args.length > 0 ? args[0] : "";
+
+        LevelManager levels = new LevelManager(W, H);
+        DropManager drops = new DropManager();
+        Paddle paddle = new Paddle(W / 2.0 - 48, H - 60, 96, 12, 5.8);
+        BallPhysics.Scratch scratch = new BallPhysics.Scratch();
+
+        // ===== bóng vs gạch (giống vòng lặp GamePanel), 10 tick mỗi mẫu =====
+        for (int n : new int[]{1, 100, 10_000}) {
+            BallPool balls = new BallPool(n);
+            bench("ballVsBrick/" + n, filter, 20, 100,
+                    () -> { levels.load(2); drops.clear(); seedBalls(balls, n); },
+                    () -> {
+                        for (int t = 0; t < 10; t++) {
+                            BallPhysics.step(balls, paddle, levels, drops, EVENTS, W, H, scratch);
+                        }
+                        return balls.size();
+                    });
+        }
+
+        // ===== đạn bắn dày: 100 lần update, mỗi lần sinh 2 viên =====
+        ProjectileManager proj = new ProjectileManager();
+        long[] now = {0};
+        bench("projectiles/denseFire", filter, 20, 100,
+                () -> { levels.load(3); drops.clear(); proj.clear(); now[0] = 0; proj.enableGun(0, 1_000_000); },
+                () -> {
+                    for (int k = 0; k < 100; k++) {
+                        paddle.x = 20 + (k * 37) % (W - 140);
+                        now[0] += 200;
+                        proj.update(now[0], paddle, H, levels, drops, EVENTS);
+                    }
+                    return score;
+                });
+
+        // ===== laser quét từng cột trên bàn đầy =====
+        bench("laser/fullBoard", filter, 20, 100,
+                () -> { levels.load(1); drops.clear(); proj.clear(); },
+                () -> {
+                    for (int x = 20; x < W - 20; x += 40) proj.fireLaser(0, x, levels, drops, EVENTS);
+                    return score;
+                });
+
+        // ===== bàn vô tận: mỗi mẫu 1000 tick cuộn tiếp (ván kéo dài dần), kèm 10 bóng bay =====
+        LevelManager endless = new LevelManager(W, H, new Random(99));
+        endless.setLoadBackgrounds(false);
+        endless.loadEndless();
+        BallPool endlessBalls = new BallPool(16);
+        bench("endless/1000ticks", filter, 20, 200,
+                () -> { if (endlessBalls.size() < 10) seedBalls(endlessBalls, 10); },
+                () -> {
+                    for (int t = 0; t < 1000; t++) {
+                        endless.update();
+                        BallPhysics.step(endlessBalls, paddle, endless, drops, EVENTS, W, H, scratch);
+                    }
+                    return endless.bricks.length;
+                });
+        if ("endless/1000ticks".contains(filter)) {
+            System.out.printf("  endless: %d hàng đã sinh, mảng gạch cố định %d ô%n", endless.rowsGenerated(), endless.bricks.length);
+        }
+
+        // ===== load level =====
+        for (int lv = 0; lv < 5; lv++) {
+            int idx = lv;
+            bench("levelLoad/level" + (lv + 1), filter, 10, 50, () -> {}, () -> {
+                levels.load(idx);
+                return levels.bricks.length;
+            });
+        }
+
+        // ===== ảnh =====
+        bench("assets/image", filter, 100, 1000, () -> {},
+                () -> AssetLoader.image("backgrounds/Map2.jpg").getWidth());
+        BufferedImage map1 = AssetLoader.image("backgrounds/Map1.jpg");
+        bench("assets/resize", filter, 3, 20, () -> {},
+                () -> AssetLoader.resize(map1, W, H).getWidth());
+        bench("assets/scaled", filter, 100, 1000, () -> {},
+                () -> AssetLoader.scaled("backgrounds/Map1.jpg", W, H).getWidth());
+
+        // ===== vẽ gạch vào ảnh offscreen =====
+        levels.load(1);
+        BufferedImage canvas = new BufferedImage(W, H, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = canvas.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        bench("brickDraw/level2", filter, 50, 500, () -> {}, () -> {
+            int n = 0;
+            for (Brick b : levels.bricks) if (b != null) { b.draw(g2); n++; }
+            return n;
+        });
+        g2.dispose();
+
+        System.out.println("imageCache: " + AssetLoader.imageCache());
+        if (sink == 42) System.out.println(); // giữ sink sống
+    }
+
+    /** Rải n bóng ngẫu nhiên (seed cố định) dưới khu gạch, bay lên. */
+    private static void seedBalls(BallPool balls, int n) {
+        Random rnd = new Random(1234);
+        balls.clear();
+        for (int i = 0; i < n; i++) {
+            double vx = rnd.nextDouble() * 8 - 4;
+            balls.add(20 + rnd.nextDouble() * (W - 40), 250 + rnd.nextDouble() * 250, 8, vx, -(2 + rnd.nextDouble() * 4));
+        }
+    }
+
+    private static void bench(String name, String filter, int warmup, int iters, Runnable setup, Op op) {
+        if (!name.contains(filter)) return;
+        for (int i = 0; i < warmup; i++) { setup.run(); sink += op.run(); }
+
+        long[] samples = new long[iters];
+        for (int i = 0; i < iters; i++) {
+            setup.run();
+            long t0 = System.nanoTime();
+            sink += op.run();
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        System.out.printf("%-28s p50 %10.1f us   min %10.1f us   max %10.1f us   (%d mẫu)%n",
+                name, samples[iters / 2] / 1e3, samples[0] / 1e3, samples[iters - 1] / 1e3, iters);
+    }
+}
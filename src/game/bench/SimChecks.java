@@ -0,0 +1,161 @@
+/** kiểm tra hồi quy headless cho mô phỏng (cấp phát mỗi tick, ...), thoát mã 1 nếu có mục hỏng*/
+package game.bench;
+
+import game.GameSimulation;
+import game.objects.Brick;
+import game.play.DropManager;
+import game.play.Pickup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Các kiểm tra chạy không cần màn hình, chạy từ thư mục gốc project:
+ *   java -cp out/production game.bench.SimChecks [filter]
+ * Mỗi kiểm tra trả null nếu đạt, ngược lại là mô tả lỗi. In PASS/FAIL từng mục; có mục hỏng → exit(1).
+ */
+public final class SimChecks {
+
+    private static final int W = 800, H = 600;
+    /** Tick chạy trước khi đo (JIT, nạp class, cache ảnh/chuỗi lần đầu). */
+    private static final int WARMUP_TICKS = 3_000;
+    private static final int MEASURE_TICKS = 5_000;
+    /**
+     * Lần gọi đo cấp phát chạy trước: chính getCurrentThreadAllocatedBytes lúc được JIT biên dịch / thay bản
+     * cũng ghi vài trăm byte lên thread đo → phải ổn định nó (và vòng đo, qua 1 lượt chạy thử) trước khi đo thật.
+     */
+    private static final int PROBE_WARMUP = 200_000;
+
+    private SimChecks() {}
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String filter = args.length > 0 ? args[0] : "";
+
+        Map<String, Supplier<String>> checks = new LinkedHashMap<>();
+        checks.put("alloc/steadyState", SimChecks::steadyStateAllocation);
+        checks.put("drops/laserChain", SimChecks::laserChainKeepsDrops);
+        checks.put("endless/laserOffscreen", SimChecks::laserSparesOffscreenRow);
+
+        int failed = 0;
+        for (Map.Entry<String, Supplier<String>> e : checks.entrySet()) {
+            if (!e.getKey().contains(filter)) continue;
+            String err = e.getValue().get();
+            System.out.printf("%-28s %s%n", e.getKey(), err == null ? "PASS" : "FAIL  " + err);
+            if (err != null) failed++;
+        }
+        if (failed > 0) System.exit(1);
+    }
+
+    /**
+     * Chế độ ổn định: mỗi level chơi tự động (paddle bám bóng), sau WARMUP_TICKS đo số byte cấp phát
+     * của thread hiện tại quanh từng step(). Chỉ tính các tick không đổi level / kết thúc ván
+     * (load level được phép cấp phát). Chạy 1 lượt thử bỏ kết quả rồi mới đo; lượt đo có bất kỳ tick nào cấp phát → hỏng.
+     */
+    private static String steadyStateAllocation() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!mx.isThreadAllocatedMemorySupported()) return "JVM không hỗ trợ đo cấp phát theo thread";
+        mx.setThreadAllocatedMemoryEnabled(true);
+        long probe = 0;
+        for (int i = 0; i < PROBE_WARMUP; i++) probe += mx.getCurrentThreadAllocatedBytes();
+        if (probe == 0) return "bộ đếm cấp phát không chạy";
+
+        StringBuilder report = new StringBuilder();
+        measureLevels(mx, report); // lượt thử: JIT cả vòng đo lẫn step
+        report.setLength(0);
+        boolean bad = measureLevels(mx, report);
+        System.out.println("  steady state:" + report);
+        return bad ? "tick ở chế độ ổn định có cấp phát:" + report : null;
+    }
+
+    /** 1 lượt qua mọi level; true nếu có tick (sau khởi động) cấp phát. */
+    private static boolean measureLevels(com.sun.management.ThreadMXBean mx, StringBuilder report) {
+        boolean bad = false;
+        for (int lv = 0; lv < GameSimulation.TOTAL_LEVELS; lv++) {
+            GameSimulation sim = new GameSimulation(W, H, 1234 + lv, false);
+            sim.startLevel(lv);
+            GameSimulation.Input in = new GameSimulation.Input();
+            long bytes = 0, worst = 0;
+            int measured = 0, allocTicks = 0;
+            for (int t = 0; t < WARMUP_TICKS + MEASURE_TICKS; t++) {
+                autopilot(sim, in);
+                long b0 = mx.getCurrentThreadAllocatedBytes();
+                GameSimulation.Event ev = sim.step(in);
+                long d = mx.getCurrentThreadAllocatedBytes() - b0;
+                if (ev != GameSimulation.Event.NONE) { // qua màn / hết ván: load lại level ngoài phần đo
+                    if (ev != GameSimulation.Event.LEVEL_ADVANCED) sim.restart();
+                    sim.startLevel(lv);
+                    continue;
+                }
+                if (t < WARMUP_TICKS) continue;
+                bytes += d; measured++;
+                if (d > 0) { allocTicks++; worst = Math.max(worst, d); }
+            }
+            report.append(String.format(" L%d=%.1fB/tick", lv + 1, bytes / (double) Math.max(1, measured)));
+            if (allocTicks > 0) { report.append(String.format("(%d tick, max %dB)", allocTicks, worst)); bad = true; }
+        }
+        return bad;
+    }
+
+    /**
+     * Ăn quà LAZER ngay dưới 1 gạch có quà (vỡ sau 1 lần trúng): tia laser làm vỡ gạch → quà mới spawn
+     * trong lúc DropManager.update đang duyệt → quà đó phải còn sau tick.
+     */
+    private static String laserChainKeepsDrops() {
+        for (int lv = 0; lv < GameSimulation.TOTAL_LEVELS; lv++) {
+            GameSimulation sim = new GameSimulation(W, H, 1234 + lv, false);
+            sim.startLevel(lv);
+            Brick[] bricks = sim.levels().bricks;
+            for (Brick b : bricks) {
+                if (b == null || b.getPickup() == null || b.isUnbreakable() || b.hp() != 1) continue;
+                double cx = b.x + b.w / 2.0, px = cx - sim.paddle().w / 2.0;
+                if (px < 0 || px + sim.paddle().w > W) continue;
+                sim.paddle().x = px;
+                DropManager drops = sim.drops();
+                drops.spawn(Pickup.Type.LAZER, (int) (px + sim.paddle().w / 2.0), sim.paddle().y);
+                sim.step(new GameSimulation.Input());
+                if (!b.isDestroyed()) return "L" + (lv + 1) + ": laser không làm vỡ gạch có quà";
+                for (int i = 0; i < drops.count(); i++) {
+                    if (drops.typeAt(i) == b.getPickup()) return null;
+                }
+                return "L" + (lv + 1) + ": quà " + b.getPickup() + " spawn trong lúc ăn LAZER bị mất (còn "
+                        + drops.count() + " quà)";
+            }
+        }
+        return "không level nào có gạch 1 máu mang quà";
+    }
+
+    /** Bàn vô tận: laser bắn ở mọi vị trí paddle không được làm vỡ gạch của hàng chờ trên mép màn. */
+    private static String laserSparesOffscreenRow() {
+        GameSimulation sim = new GameSimulation(W, H, 99, false);
+        sim.startEndless();
+        List<Brick> hidden = new ArrayList<>(); // giữ object: gạch vỡ bị xoá khỏi mảng bricks
+        List<Integer> hp = new ArrayList<>();
+        for (Brick b : sim.levels().bricks) if (b != null && b.y + b.h <= 0) { hidden.add(b); hp.add(b.hp()); }
+        if (hidden.isEmpty()) return "bàn vô tận không có hàng chờ trên mép màn";
+        for (int x = 10; x + sim.paddle().w < W - 10; x += 8) {
+            sim.paddle().x = x;
+            sim.fireLaser();
+        }
+        for (int i = 0; i < hidden.size(); i++) {
+            if (hidden.get(i).hp() != hp.get(i)) return "laser bắn trúng gạch chưa hiện (y=" + hidden.get(i).y + ")";
+        }
+        for (int i = 0; i < sim.drops().count(); i++) {
+            if (sim.drops().yAt(i) < 0) return "quà rơi ra từ phía trên màn (y=" + sim.drops().yAt(i) + ")";
+        }
+        return null;
+    }
+
+    /** Paddle bám bóng đầu tiên; đang kê bóng thì bắn luôn. */
+    private static void autopilot(GameSimulation sim, GameSimulation.Input in) {
+        in.launch = sim.isServing();
+        double px = sim.paddle().x + sim.paddle().w / 2.0;
+        double bx = sim.balls().size() > 0 ? sim.balls().x[0] : W / 2.0;
+        in.left = bx < px - 10;
+        in.right = bx > px + 10;
+    }
+}
@@ -0,0 +1,170 @@
+/** bóng: di chuyển, dội tường, dội paddle, chạm gạch (dùng chung cho GameSimulation và benchmark)*/
+package game.logic;
+
+import game.LevelManager;
+import game.objects.BallPool;
+import game.objects.Brick;
+import game.objects.Paddle;
+import game.play.DropManager;
+
+/**
+ * Bước vật lý cho toàn bộ bóng trong BallPool.
+ * Va chạm liên tục (swept): tìm thời điểm chạm sớm nhất trong tick giữa tâm bóng và hộp gạch/paddle
+ * đã nới thêm bán kính (bóng coi như hộp vuông cạnh 2r – giống cách test AABB cũ), xử lý lần lượt
+ * từng va chạm theo thời gian → bóng nhanh / gạch mỏng không xuyên qua, không cần chia nhỏ tick.
+ */
+public final class BallPhysics {
+    /** Tốc độ bóng sau khi bắn / dội paddle (px mỗi tick). */
+    public static final double BALL_SPEED = 6.0;
+    /** Số va chạm tối đa xử lý cho 1 bóng trong 1 tick. */
+    private static final int MAX_CONTACTS = 4;
+    private static final double MISS = Double.POSITIVE_INFINITY;
+
+    private BallPhysics() {}
+
+    /** Buffer ứng viên gạch của người gọi; thiếu chỗ thì step nới và giữ lại bản mới → chỉ cấp phát 1 lần. */
+    public static final class Scratch {
+        int[] ids = new int[32];
+    }
+
+    /**
+     * Chạy 1 tick cho mọi bóng: quét gạch + paddle theo thời gian chạm, rồi tường.
+     * Bóng rơi khỏi đáy bị xoá khỏi pool. scratch: buffer cho LevelManager.queryBricks (thiếu chỗ thì nới và giữ trong scratch, không bỏ sót gạch).
+     */
+    public static void step(BallPool balls, Paddle paddle, LevelManager levels,
+                            DropManager dropMgr, GameEventBus events,
+                            int width, int height, Scratch scratch) {
+        step(balls, paddle, levels, dropMgr, events, width, height, scratch, false);
+    }
+
+    /**
+     * Như trên; timeBricks = true → đo riêng phần va chạm gạch (truy vấn ứng viên, thời điểm chạm, hitBrick)
+     * bằng nanoTime và trả về tổng ns của phần đó (để profiler tách khỏi phần di chuyển bóng); false → trả 0.
+     */
+    public static long step(BallPool balls, Paddle paddle, LevelManager levels,
+                            DropManager dropMgr, GameEventBus events,
+                            int width, int height, Scratch scratch, boolean timeBricks) {
+        long brickNanos = 0, q0 = 0;
+        int[] ids = scratch.ids;
+        double padL = (int) paddle.x, padT = (int) paddle.y;
+        double padR = padL + paddle.w, padB = padT + paddle.h;
+
+        for (int i = 0; i < balls.size(); i++) {
+            double x = balls.x[i], y = balls.y[i];
+            double vx = balls.vx[i], vy = balls.vy[i];
+            int r = balls.r[i];
+
+            double remain = 1.0; // phần tick còn lại
+            for (int c = 0; c < MAX_CONTACTS && remain > 0; c++) {
+                double dx = vx * remain, dy = vy * remain;
+                if (dx == 0 && dy == 0) break;
+
+                // ứng viên gạch: các ô mà hộp quét của bóng chạm vào
+                int qx = (int) Math.floor(Math.min(x, x + dx) - r);
+                int qy = (int) Math.floor(Math.min(y, y + dy) - r);
+                int qw = (int) Math.ceil(Math.abs(dx)) + 2 * r + 2;
+                int qh = (int) Math.ceil(Math.abs(dy)) + 2 * r + 2;
+                if (timeBricks) q0 = System.nanoTime();
+                int n = levels.queryBricks(qx, qy, qw, qh, ids);
+                if (n > ids.length) { // hiếm (bóng rất nhanh / lưới dày): nới buffer (giữ cho lần sau) rồi hỏi lại
+                    scratch.ids = ids = new int[Integer.highestOneBit(n) << 1];
+                    n = levels.queryBricks(qx, qy, qw, qh, ids);
+                }
+
+                int bestJ = -1;
+                double bestT = MISS;
+                for (int k = 0; k < n; k++) { // ids tăng dần → hoà thời gian thì gạch index nhỏ thắng
+                    Brick b = levels.bricks[ids[k]];
+                    if (b == null) continue;
+                    double t = timeOfImpact(x, y, dx, dy, b.x - r, b.y - r, b.x + b.w + r, b.y + b.h + r);
+                    if (t < bestT) { bestT = t; bestJ = ids[k]; }
+                }
+                if (timeBricks) brickNanos += System.nanoTime() - q0;
+                double padT0 = vy > 0 ? timeOfImpact(x, y, dx, dy, padL - r, padT - r, padR + r, padB + r) : MISS;
+                boolean hitPaddle = padT0 < bestT;
+                double t = hitPaddle ? padT0 : bestT;
+
+                if (t == MISS) { x += dx; y += dy; break; }
+
+                boolean side = !hitPaddle && hitsSideFace(x, y, dx, dy, levels.bricks[bestJ], r);
+                x += dx * t; y += dy * t;
+                remain *= (1 - t);
+
+                if (hitPaddle) {
+                    y = padT - r - 1;
+                    double center = paddle.x + paddle.w / 2.0;
+                    double tt = (x - center) / (paddle.w / 2.0);
+                    tt = Math.max(-1, Math.min(1, tt));
+                    vx = tt * 5.0;
+                    vy = -Math.sqrt(Math.max(1, BALL_SPEED * BALL_SPEED - vx * vx));
+                    events.publish(GameEventBus.Type.PADDLE_HIT, -1, 0, (int) x, (int) y);
+                    continue;
+                }
+
+                if (side) vx = -vx; else vy = -vy;
+                if (timeBricks) q0 = System.nanoTime();
+                levels.hitBrick(bestJ, dropMgr, events);
+                if (timeBricks) brickNanos += System.nanoTime() - q0;
+            }
+
+            if (x - r < 0)      { x = r;         vx = -vx; }
+            if (x + r > width)  { x = width-r;   vx = -vx; }
+            if (y - r < 0)      { y = r;         vy = -vy; }
+            if (y - r > height) { balls.remove(i--); continue; }
+
+            balls.x[i] = x; balls.y[i] = y; balls.vx[i] = vx; balls.vy[i] = vy;
+        }
+        return brickNanos;
+    }
+
+    /**
+     * Thời điểm (0..1) điểm (px,py) đi theo (dx,dy) lần đầu lọt vào trong hộp mở (minX,minY)-(maxX,maxY);
+     * MISS nếu không chạm trong tick. Đang nằm sẵn trong hộp → 0 nếu đang lún sâu thêm, ngược lại MISS
+     * (để bóng thoát ra, không dội qua dội lại).
+     */
+    static double timeOfImpact(double px, double py, double dx, double dy,
+                               double minX, double minY, double maxX, double maxY) {
+        double enterX, exitX, enterY, exitY;
+        if (dx != 0) {
+            double a = (minX - px) / dx, b = (maxX - px) / dx;
+            enterX = Math.min(a, b); exitX = Math.max(a, b);
+        } else {
+            if (px <= minX || px >= maxX) return MISS;
+            enterX = Double.NEGATIVE_INFINITY; exitX = Double.POSITIVE_INFINITY;
+        }
+        if (dy != 0) {
+            double a = (minY - py) / dy, b = (maxY - py) / dy;
+            enterY = Math.min(a, b); exitY = Math.max(a, b);
+        } else {
+            if (py <= minY || py >= maxY) return MISS;
+            enterY = Double.NEGATIVE_INFINITY; exitY = Double.POSITIVE_INFINITY;
+        }
+        double enter = Math.max(enterX, enterY), exit = Math.min(exitX, exitY);
+        if (enter >= exit || exit <= 0 || enter > 1) return MISS;
+        if (enter >= 0) return enter;
+
+        // đã chồng lấn từ đầu tick: xét trục lún ít hơn, chỉ tính nếu đang đi sâu thêm theo trục đó
+        double penX = Math.min(px - minX, maxX - px), penY = Math.min(py - minY, maxY - py);
+        boolean inward = penX < penY
+                ? dx * ((minX + maxX) / 2 - px) > 0
+                : dy * ((minY + maxY) / 2 - py) > 0;
+        return inward ? 0 : MISS;
+    }
+
+    /**
+     * Mặt gạch bị chạm là trái/phải (→ đảo vx) hay trên/dưới (→ đảo vy); gọi với vị trí đầu đoạn quét.
+     * Mặt chạm = trục đi vào hộp muộn nhất; nếu đã chồng lấn thì lấy trục lún ít hơn (như code cũ).
+     */
+    static boolean hitsSideFace(double px, double py, double dx, double dy, Brick b, int r) {
+        double minX = b.x - r, maxX = b.x + b.w + r, minY = b.y - r, maxY = b.y + b.h + r;
+        boolean insideX = px > minX && px < maxX, insideY = py > minY && py < maxY;
+        if (insideX && insideY) {
+            return Math.min(px - minX, maxX - px) < Math.min(py - minY, maxY - py);
+        }
+        if (insideX) return false; // chỉ có thể đi vào qua mặt trên/dưới
+        if (insideY) return true;  // chỉ có thể đi vào qua mặt trái/phải
+        double enterX = ((dx > 0 ? minX : maxX) - px) / dx;
+        double enterY = ((dy > 0 ? minY : maxY) - py) / dy;
+        return enterX > enterY;
+    }
+}
@@ -5,12 +5,25 @@ import game.objects.Ball;
 import game.objects.Brick;
 import game.objects.Paddle;
 
-import java.awt.*;
-
 /** Các hàm xử lý va chạm. */
 public final class CollisionUtil {
     private CollisionUtil() {}
 
+    /**
+     * AABB giao nhau (cùng ngữ nghĩa Rectangle.intersects) nhưng nhận toạ độ trực tiếp,
+     * không tạo Rectangle → dùng trong vòng lặp nóng mỗi tick.
+     */
+    public static boolean overlaps(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0) return false;
+        return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+
+    /** Hộp bao bóng với paddle. */
+    public static boolean ballHitsPaddle(Ball b, Paddle p) {
+        int d = b.r * 2;
+        return overlaps((int)(b.x - b.r), (int)(b.y - b.r), d, d, (int)p.x, (int)p.y, p.w, p.h);
+    }
+
     /** Phản xạ bóng với biên panel. */
     public static void reflectWithWalls(Ball b, int W, int H) {
         if (b.x - b.r < 0)      { b.x = b.r;        b.vx = -b.vx; }
@@ -20,7 +33,7 @@ public final class CollisionUtil {
 
     /** Bóng–paddle: điều chỉnh hướng theo vị trí chạm. */
     public static void ballBounceOnPaddle(Ball b, Paddle paddle) {
-        if (!(b.getRect().intersects(paddle.getRect()) && b.vy > 0)) return;
+        if (!(ballHitsPaddle(b, paddle) && b.vy > 0)) return;
 
         b.y = paddle.y - b.r - 1;
         double center = paddle.x + paddle.w / 2.0;
@@ -34,18 +47,17 @@ public final class CollisionUtil {
 
     /** Trả về index brick bị phá hoặc -1 nếu không chạm. */
     public static int hitBrickIndex(Ball b, Brick[] bricks) {
-        Rectangle br = b.getRect();
+        int bx = (int)(b.x - b.r), by = (int)(b.y - b.r), d = b.r * 2;
         for (int i = 0; i < bricks.length; i++) {
             Brick r = bricks[i];
             if (r == null) continue;
-            Rectangle rr = r.getRect();
-            if (!br.intersects(rr)) continue;
+            if (!overlaps(bx, by, d, d, r.x, r.y, r.w, r.h)) continue;
 
             // Xác định hướng phản xạ cơ bản
-            int leftO   = (int)(br.x + br.width) - rr.x;
-            int rightO  = (int)(rr.x + rr.width) - br.x;
-            int topO    = (int)(br.y + br.height) - rr.y;
-            int bottomO = (int)(rr.y + rr.height) - br.y;
+            int leftO   = (bx + d) - r.x;
+            int rightO  = (r.x + r.w) - bx;
+            int topO    = (by + d) - r.y;
+            int bottomO = (r.y + r.h) - by;
             if (Math.min(leftO, rightO) < Math.min(topO, bottomO)) b.vx = -b.vx; else b.vy = -b.vy;
 
             return i;
@@ -0,0 +1,100 @@
+/** bus sự kiện game: ring buffer 1 producer, slot dựng sẵn, không khoá*/
+package game.logic;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Sự kiện gameplay (gạch trúng/vỡ, ăn quà, mất bóng, qua màn, dội paddle, bắn đạn/laser) ghi vào ring buffer slot cố định
+ * (mảng nguyên thuỷ, publish không cấp phát). Chỉ 1 producer: thread mô phỏng.
+ * - owner (chấm điểm, cùng thread mô phỏng): drainOwner() cuối tick; ring đầy trước khi owner đọc kịp
+ *   → publish tự drain owner tại chỗ → owner không bao giờ mất sự kiện (điểm luôn đúng, replay không đổi).
+ * - subscribe(): consumer thread khác (âm thanh, thống kê, UI) đọc theo con trỏ riêng, không chặn producer;
+ *   tụt quá 1 vòng ring thì nhảy tới sự kiện cũ nhất còn giữ và đếm vào lost.
+ * Đồng bộ: producer ghi slot rồi ghi volatile published (release); consumer đọc published (acquire),
+ * đọc slot, rồi kiểm lại published → slot bị ghi đè trong lúc đọc thì bỏ.
+ */
+public final class GameEventBus {
+
+    public enum Type { BRICK_HIT, BRICK_BROKEN, PICKUP_CAUGHT, BALL_LOST, LEVEL_CLEARED, PADDLE_HIT, BULLET_FIRED, LASER_FIRED }
+
+    /**
+     * Nhận 1 sự kiện. index: index gạch (BRICK_*), ordinal Pickup.Type (PICKUP_CAUGHT), số level (LEVEL_CLEARED), -1 nếu không có;
+     * points: điểm cộng; x/y: toạ độ xảy ra (tâm gạch / vị trí quà / vị trí bóng / giữa paddle khi bắn / tâm tia laser).
+     */
+    @FunctionalInterface
+    public interface Handler { void on(Type type, int index, int points, int x, int y); }
+
+    /** Con trỏ đọc của 1 consumer. */
+    public static final class Cursor {
+        private long next;
+        private long lost;
+        private Cursor(long next) { this.next = next; }
+        /** Số sự kiện bị bỏ vì consumer đọc không kịp. */
+        public long lost() { return lost; }
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final int mask;
+    private final byte[] type;
+    private final int[] index, points, x, y;
+    private volatile long published = 0;
+    private final Handler owner;
+    private final Cursor ownerCursor = new Cursor(0);
+
+    /** @param capacity làm tròn lên luỹ thừa của 2; owner: consumer cùng thread producer (null nếu không có). */
+    public GameEventBus(int capacity, Handler owner) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = cap - 1;
+        type = new byte[cap];
+        index = new int[cap]; points = new int[cap]; x = new int[cap]; y = new int[cap];
+        this.owner = owner;
+    }
+
+    public int capacity() { return mask + 1; }
+    public long published() { return published; }
+
+    /** Chỉ thread mô phỏng gọi. */
+    public void publish(Type t, int idx, int pts, int px, int py) {
+        long seq = published;
+        if (owner != null && seq - ownerCursor.next > mask) drainOwner();
+        int s = (int) seq & mask;
+        type[s] = (byte) t.ordinal(); index[s] = idx; points[s] = pts; x[s] = px; y[s] = py;
+        published = seq + 1;
+    }
+
+    /** Đưa mọi sự kiện chưa đọc cho owner (thread mô phỏng). */
+    public void drainOwner() {
+        if (owner == null) return;
+        long end = published;
+        for (long q = ownerCursor.next; q < end; q++) {
+            int s = (int) q & mask;
+            owner.on(TYPES[type[s]], index[s], points[s], x[s], y[s]);
+        }
+        ownerCursor.next = end;
+    }
+
+    /** Bỏ các sự kiện owner chưa đọc (reset ván). */
+    public void discardOwner() { ownerCursor.next = published; }
+
+    /** Consumer mới, chỉ thấy sự kiện publish sau lúc đăng ký. */
+    public Cursor subscribe() { return new Cursor(published); }
+
+    /** Đọc tối đa max sự kiện cho c (gọi từ thread của consumer đó). Trả về số sự kiện đã giao. */
+    public int poll(Cursor c, Handler h, int max) {
+        long end = published;
+        int cap = mask + 1, n = 0;
+        if (end - c.next > cap) { c.lost += end - cap - c.next; c.next = end - cap; }
+        while (c.next < end && n < max) {
+            long q = c.next++;
+            int s = (int) q & mask;
+            Type t = TYPES[type[s]];
+            int idx = index[s], pts = points[s], px = x[s], py = y[s];
+            VarHandle.acquireFence(); // đọc slot xong mới kiểm lại published
+            if (published - q > cap - 1) { c.lost++; continue; } // producer đã ghi đè slot này
+            h.on(t, idx, pts, px, py);
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,33 @@
+/** đồng hồ mô phỏng bước cố định, tách khỏi Swing Timer*/
+package game.logic;
+
+/**
+ * Đồng hồ game với accumulator bước cố định.
+ * - advance(nowNanos, running): tính số bước cần chạy cho khung hình này (có giới hạn bắt kịp).
+ * Thời gian game (ms) do GameSimulation đếm theo số bước đã chạy → pause là thời gian đứng yên.
+ */
+public final class SimClock {
+    public static final int TICK_HZ = 60;
+    public static final long STEP_NANOS = 1_000_000_000L / TICK_HZ;
+    /** Tối đa số bước bắt kịp mỗi khung; EDT treo lâu hơn thì bỏ phần dư (game chậm lại thay vì giật cục). */
+    public static final int MAX_STEPS_PER_FRAME = 5;
+
+    private long lastNanos = -1;
+    private long accNanos = 0;
+
+    /** Trả về số bước update cần chạy. running=false → không tích luỹ, mốc thời gian được đặt lại. */
+    public int advance(long nowNanos, boolean running) {
+        if (!running || lastNanos < 0) {
+            lastNanos = nowNanos;
+            accNanos = 0;
+            return 0;
+        }
+        accNanos += nowNanos - lastNanos;
+        lastNanos = nowNanos;
+
+        int steps = (int) Math.min(MAX_STEPS_PER_FRAME, accNanos / STEP_NANOS);
+        accNanos -= steps * STEP_NANOS;
+        if (accNanos >= STEP_NANOS) accNanos = accNanos % STEP_NANOS; // vượt trần: bỏ phần tồn
+        return steps;
+    }
+}
@@ -2,6 +2,7 @@
 package game.mainhall;
 
 import game.AssetLoader;
+import game.AssetPreloader;
 import game.GameWindow;
 import game.MusicHub;
 
@@ -13,24 +14,49 @@ public class MainHall extends JFrame {
 
     private Image bg;
     private final MusicHub music = new MusicHub();
+    private final AssetPreloader preloader = AssetPreloader.startOnce();
+    private static final String SCENE = "mainhall";
 
     public MainHall() {
         setTitle("Main Menu");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setResizable(false);
 
+        // ảnh sảnh giữ trong cache khi đang ở sảnh (nền + skin cho màn chọn paddle), thả khi rời sảnh
+        AssetLoader.pinScaled(SCENE, AssetPreloader.MAIN_BACKGROUND, AssetPreloader.SCREEN_W, AssetPreloader.SCREEN_H);
+        for (int i = 0; i < PaddleSkinStore.count(); i++) AssetLoader.pinImage(SCENE, PaddleSkinStore.pathAt(i));
+
         // Panel nền + layout ở giữa
         JPanel root = new JPanel() {
             @Override protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 if (bg != null) g.drawImage(bg, 0, 0, null);
                 else { g.setColor(Color.BLACK); g.fillRect(0,0,getWidth(),getHeight()); }
+
+                // thanh tiến độ nạp ảnh (ẩn khi xong)
+                if (!preloader.finished()) {
+                    int bw = 300, bh = 8, bx = (getWidth() - bw) / 2, by = getHeight() - 40;
+                    g.setColor(new Color(255, 255, 255, 60));
+                    g.fillRect(bx, by, bw, bh);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(bx, by, bw * preloader.done() / Math.max(1, preloader.total()), bh);
+                    g.setFont(new Font("Monospaced", Font.PLAIN, 12));
+                    g.drawString("Loading assets " + preloader.done() + "/" + preloader.total(), bx, by - 6);
+                }
             }
         };
-        root.setPreferredSize(new Dimension(800, 600));
+        root.setPreferredSize(new Dimension(AssetPreloader.SCREEN_W, AssetPreloader.SCREEN_H));
         root.setLayout(new GridBagLayout()); // căn giữa
 
-        try { bg = AssetLoader.scaled("backgrounds/mainbackground.jpg", 800, 600); } catch (Exception ignored) {}
+        // nền sảnh lấy từ preloader (đã decode trên worker) – không decode lại trên EDT
+        Runnable onProgress = () -> {
+            if (bg == null && preloader.isLoaded(AssetPreloader.MAIN_BACKGROUND)) {
+                try { bg = AssetLoader.scaled(AssetPreloader.MAIN_BACKGROUND, AssetPreloader.SCREEN_W, AssetPreloader.SCREEN_H); } catch (Exception ignored) {}
+            }
+            root.repaint();
+        };
+        preloader.addListener(onProgress);
+        onProgress.run();
 
         // Cột nút ở giữa
         JPanel btnCol = new JPanel();
@@ -47,6 +73,7 @@ public class MainHall extends JFrame {
         btnPlay.addActionListener((ActionEvent e) -> {
             new GameWindow(true); // vào thẳng level 1: bóng serving, SPACE để bắn
             music.stop();
+            AssetLoader.releaseScene(SCENE);
             dispose();
         });
 
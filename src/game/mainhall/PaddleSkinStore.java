@@ -42,6 +42,9 @@ public final class PaddleSkinStore {
     // ===== API cho PaddleSelectWindow =====
     public static int count() { return SKIN_PATHS.length; }
 
+    /** Đường dẫn ảnh skin i (cho AssetPreloader). */
+    public static String pathAt(int i) { return SKIN_PATHS[i]; }
+
     /** Tên hiển thị của skin i (an toàn index). */
     public static String nameAt(int i) {
         if (i < 0 || i >= count()) return "Paddle";
@@ -0,0 +1,61 @@
+/** kho bóng dạng mảng nguyên thuỷ (SoA) cho multi-ball số lượng lớn*/
+package game.objects;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Lưu toàn bộ bóng theo cột: x[], y[], vx[], vy[], r[] (chỉ số 0..size-1 là bóng sống).
+ * Xoá bằng swap-remove (đổi chỗ với phần tử cuối) → O(1), không dồn mảng.
+ * Lưu ý: add() có thể cấp mảng mới, đừng giữ tham chiếu mảng qua lời gọi add().
+ */
+public final class BallPool {
+    public double[] x, y, vx, vy;
+    public int[] r;
+    private int size = 0;
+
+    public BallPool(int capacity) {
+        int cap = Math.max(1, capacity);
+        x = new double[cap]; y = new double[cap];
+        vx = new double[cap]; vy = new double[cap];
+        r = new int[cap];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public void clear() { size = 0; }
+
+    /** Thêm 1 bóng, trả về index. */
+    public int add(double x, double y, int r, double vx, double vy) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        this.x[i] = x; this.y[i] = y; this.r[i] = r;
+        this.vx[i] = vx; this.vy[i] = vy;
+        return i;
+    }
+
+    /** Xoá bóng i: phần tử cuối chuyển vào chỗ i (duyệt ngược hoặc dùng i-- sau khi xoá). */
+    public void remove(int i) {
+        int last = --size;
+        if (i == last) return;
+        x[i] = x[last]; y[i] = y[last]; r[i] = r[last];
+        vx[i] = vx[last]; vy[i] = vy[last];
+    }
+
+    /** Đảm bảo chứa được n bóng (tăng gấp đôi khi thiếu). */
+    public void ensureCapacity(int n) {
+        if (n <= x.length) return;
+        int cap = Math.max(n, x.length * 2);
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap);
+        vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+        r = Arrays.copyOf(r, cap);
+    }
+
+    public void draw(Graphics2D g2) {
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < size; i++) {
+            int d = r[i] * 2;
+            g2.fillOval((int)(x[i] - r[i]), (int)(y[i] - r[i]), d, d);
+        }
+    }
+}
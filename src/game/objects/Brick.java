@@ -2,15 +2,27 @@ package game.objects;
 
 import game.play.Pickup; // chứa enum Pickup.Type
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 /** Gạch cơ bản. Hỗ trợ: HP (gạch cứng), bất tử, powerup-embedded, vẽ logo powerup. */
 public class Brick {
 
-    public final int x, y, w, h;
+    public final int x, w, h;
+    public int y;                       // chỉ đổi khi bàn vô tận cuộn xuống (LevelManager.update)
     private final boolean unbreakable;
     private final Color baseColor;
     private final Pickup.Type pickup;   // null nếu không có quà
     private int hp;                     // 1 = vỡ 1 hit; >1 là gạch cứng; bất tử dùng Integer.MAX_VALUE
+    private BufferedImage sprite;       // ảnh dựng sẵn từ BrickSprites; null = lấy lại khi vẽ
+
+    // màu hiển thị (hằng, tránh new Color mỗi khung)
+    private static final Color UNBREAKABLE_COLOR = new Color(130, 130, 140);
+    private static final Color HARD_COLOR        = new Color(40, 180, 90);
+    private static final Color HEART_COLOR       = new Color(220, 60, 60);
+    private static final Color GUN_COLOR         = new Color(255, 210, 0);
+    private static final Color LAZER_COLOR       = new Color(80, 220, 120);
+    private static final Color EXPAND_COLOR      = new Color(160, 90, 220);
+    private static final Color BONUS_COLOR       = new Color(255, 160, 60);
 
     public Brick(int x, int y, int w, int h,
                  boolean unbreakable, Color color,
@@ -26,12 +38,18 @@ public class Brick {
     /** Bị đánh trúng 1 lần. Trả về true nếu gạch vỡ. */
     public boolean onHit() {
         if (unbreakable) return false;
-        if (hp > 1) { hp -= 1; return false; }
+        if (hp > 1) {
+            int before = dots();
+            hp -= 1;
+            if (dots() != before) sprite = null; // chỉ đổi ảnh khi hình thay đổi (số chấm / hết màu "cứng")
+            return false;
+        }
         hp = 0; return true;
     }
 
     public boolean isUnbreakable() { return unbreakable; }
     public boolean isDestroyed()   { return hp <= 0; }
+    public int hp()                { return hp; }
 
     /** Powerup gắn trong gạch (có thể null). */
     public Pickup.Type getPowerup() { return pickup; }
@@ -43,60 +61,30 @@ public class Brick {
 
     /** Màu hiển thị tùy trạng thái + loại power-up. */
     private Color colorForRender() {
-        if (unbreakable) return new Color(130, 130, 140); // xám “bất tử”
+        if (unbreakable) return UNBREAKABLE_COLOR; // xám “bất tử”
         // Nếu có power-up → ưu tiên màu theo yêu cầu
         if (pickup != null) {
             return switch (pickup) {
-                case HEART        -> new Color(220, 60, 60);    // đỏ
-                case GUN          -> new Color(255, 210, 0);    // vàng
-                case LAZER        -> new Color(80, 220, 120);   // xanh lá
-                case EXPAND       -> new Color(160, 90, 220);   // tím
-                case BONUS_BALLS  -> new Color(255, 160, 60);   // cam
+                case HEART        -> HEART_COLOR;    // đỏ
+                case GUN          -> GUN_COLOR;      // vàng
+                case LAZER        -> LAZER_COLOR;    // xanh lá
+                case EXPAND       -> EXPAND_COLOR;   // tím
+                case BONUS_BALLS  -> BONUS_COLOR;    // cam
             };
         }
         // Không có power-up: cứng thì xanh lá đậm, thường dùng baseColor
-        if (hp >= 2)     return new Color(40, 180, 90);
+        if (hp >= 2)     return HARD_COLOR;
         return baseColor;
     }
 
-    /** Vẽ gạch + viền + logo powerup (nếu có). */
-    public void draw(Graphics2D g2) {
-        Color c = colorForRender();
-        g2.setColor(c);
-        g2.fillRoundRect(x, y, w, h, 6, 6);
-
-        // viền
-        g2.setColor(c.darker());
-        g2.drawRoundRect(x, y, w, h, 6, 6);
-
-        // logo powerup gắn trên mặt gạch
-        if (pickup != null) {
-            String letter = switch (pickup) {
-                case EXPAND -> "E";
-                case BONUS_BALLS -> "B";
-                case LAZER -> "L";
-                case GUN -> "G";
-                case HEART -> "H";
-            };
-            g2.setFont(new Font("Monospaced", Font.BOLD, 12));
-            // Chọn màu chữ cho nổi trên nền
-            g2.setColor(Color.BLACK);
-            int tw = g2.getFontMetrics().stringWidth(letter);
-            int th = g2.getFontMetrics().getAscent();
-            g2.drawString(letter, x + (w - tw) / 2, y + (h + th) / 2 - 3);
-        }
+    /** Số chấm HP hiển thị (tối đa 3 chấm cho đẹp), 0 nếu không phải gạch cứng. */
+    private int dots() {
+        return (!unbreakable && hp >= 2) ? Math.min(3, hp) : 0;
+    }
 
-        // gạch cứng: chấm trắng hiển thị HP (tối đa 3 chấm cho đẹp)
-        if (!unbreakable && hp >= 2) {
-            g2.setColor(new Color(255,255,255,200));
-            int dots = Math.min(3, hp);
-            int gap = 6, sz = 4;
-            int total = dots * sz + (dots - 1) * gap;
-            int sx = x + (w - total) / 2;
-            int sy = y + h - 8;
-            for (int i = 0; i < dots; i++) {
-                g2.fillOval(sx + i * (sz + gap), sy, sz, sz);
-            }
-        }
+    /** Vẽ gạch + viền + logo powerup (nếu có) bằng ảnh dựng sẵn. */
+    public void draw(Graphics2D g2) {
+        if (sprite == null) sprite = BrickSprites.get(w, h, colorForRender(), pickup, dots());
+        g2.drawImage(sprite, x, y, null);
     }
 }
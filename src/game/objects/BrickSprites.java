@@ -0,0 +1,81 @@
+/** ảnh gạch dựng sẵn theo dáng vẻ: vẽ gạch = 1 lần drawImage*/
+package game.objects;
+
+import game.AssetLoader;
+import game.play.Pickup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache ảnh gạch dựng sẵn (nền trong suốt), khoá theo (w, h, màu, power-up, số chấm HP).
+ * Các gạch cùng dáng vẻ dùng chung 1 ảnh → vẽ gạch chỉ còn 1 lần drawImage.
+ */
+final class BrickSprites {
+    private static final Map<Long, BufferedImage> CACHE = new HashMap<>();
+    private static final Font LETTER_FONT = new Font("Monospaced", Font.BOLD, 12);
+    private static final Color DOT_COLOR = new Color(255, 255, 255, 200);
+
+    private BrickSprites() {}
+
+    static synchronized BufferedImage get(int w, int h, Color c, Pickup.Type pickup, int dots) {
+        long key = ((long) (w & 0xFFF) << 41) | ((long) (h & 0xFFF) << 29)
+                 | ((long) (c.getRGB() & 0xFFFFFF) << 5)
+                 | ((pickup != null ? pickup.ordinal() + 1L : 0L) << 2) | (dots & 0x3);
+        BufferedImage img = CACHE.get(key);
+        if (img == null) {
+            img = render(w, h, c, pickup, dots);
+            CACHE.put(key, img);
+        }
+        return img;
+    }
+
+    /** Số ảnh đang cache (tiện debug). */
+    static synchronized int size() { return CACHE.size(); }
+
+    private static BufferedImage render(int w, int h, Color c, Pickup.Type pickup, int dots) {
+        // +1: viền drawRoundRect tràn thêm 1px phải/dưới
+        BufferedImage img = AssetLoader.compatibleImage(w + 1, h + 1, true);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(c);
+            g2.fillRoundRect(0, 0, w, h, 6, 6);
+
+            // viền
+            g2.setColor(c.darker());
+            g2.drawRoundRect(0, 0, w, h, 6, 6);
+
+            // logo powerup gắn trên mặt gạch
+            if (pickup != null) {
+                String s = switch (pickup) {
+                    case EXPAND -> "E";
+                    case BONUS_BALLS -> "B";
+                    case LAZER -> "L";
+                    case GUN -> "G";
+                    case HEART -> "H";
+                };
+                g2.setFont(LETTER_FONT);
+                g2.setColor(Color.BLACK);
+                int tw = g2.getFontMetrics().stringWidth(s);
+                int th = g2.getFontMetrics().getAscent();
+                g2.drawString(s, (w - tw) / 2, (h + th) / 2 - 3);
+            }
+
+            // gạch cứng: chấm trắng hiển thị HP
+            if (dots > 0) {
+                g2.setColor(DOT_COLOR);
+                int gap = 6, sz = 4;
+                int total = dots * sz + (dots - 1) * gap;
+                int sx = (w - total) / 2;
+                int sy = h - 8;
+                for (int i = 0; i < dots; i++) g2.fillOval(sx + i * (sz + gap), sy, sz, sz);
+            }
+        } finally {
+            g2.dispose();
+        }
+        return img;
+    }
+}
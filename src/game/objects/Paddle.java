@@ -12,26 +12,53 @@ public class Paddle {
     public int w, h;
     public double speed;
 
-    // Ảnh skin (có thể null) – ưu tiên dùng Image chung để nhận từ store
-    private Image skinImg;
+    /** Hệ số nới rộng khi ăn EXPAND. */
+    public static final double EXPAND_FACTOR = 1.5;
+
+    // Ảnh skin gốc (có thể null) + đường dẫn nếu có (→ bản scale lấy qua cache (path, w, h) của AssetLoader)
+    private BufferedImage skinImg;
+    private String skinPath;
+    // skin đã đúng cỡ w×h hiện tại; chỉ đổi trong setSkin*/setWidth → draw chỉ chọn ảnh, không scale
+    private BufferedImage skin;
 
     public Paddle(double x, double y, int w, int h, double speed) {
         this.x = x; this.y = y; this.w = w; this.h = h; this.speed = speed;
     }
 
-    /** Gán skin từ đường dẫn (classpath hoặc file). Nếu lỗi → để null. */
+    /**
+     * Gán skin từ đường dẫn (classpath hoặc file). Nếu lỗi → để null.
+     * Bản scale cho bề rộng hiện tại và bề rộng EXPAND dựng luôn (vào cache) → lần ăn EXPAND đầu không phải scale.
+     */
     public void setSkinPath(String path) {
         try {
-            BufferedImage img = AssetLoader.image(path);
-            this.skinImg = img;
+            skinImg = AssetLoader.toBuffered(AssetLoader.image(path));
+            skinPath = path;
+            AssetLoader.scaled(path, (int)Math.round(w * EXPAND_FACTOR), h);
         } catch (Throwable ignore) {
-            this.skinImg = null;
+            skinImg = null;
+            skinPath = null;
         }
+        rescaleSkin();
     }
 
-    /** Gán skin trực tiếp bằng Image (lấy từ PaddleSkinStore). */
+    /** Gán skin trực tiếp bằng Image không có đường dẫn (scale riêng mỗi lần đổi cỡ, không qua cache). */
     public void setSkinImage(Image img) {
-        this.skinImg = img;
+        skinImg = img == null ? null : AssetLoader.toBuffered(img);
+        skinPath = null;
+        rescaleSkin();
+    }
+
+    /** Đổi bề rộng (EXPAND / hết EXPAND): scale skin ngay tại đây, không để tới lúc vẽ. */
+    public void setWidth(int nw) {
+        if (nw == w) return;
+        w = nw;
+        rescaleSkin();
+    }
+
+    private void rescaleSkin() {
+        if (skinImg == null) skin = null;
+        else if (skinPath != null) skin = AssetLoader.scaled(skinPath, w, h);
+        else skin = AssetLoader.resize(skinImg, w, h);
     }
 
     public void move(int dir, int screenW) {
@@ -43,9 +70,10 @@ public class Paddle {
     public Rectangle getRect() { return new Rectangle((int)x, (int)y, w, h); }
 
     public void draw(Graphics2D g2) {
-        if (skinImg != null) {
-            // Vẽ ảnh theo kích thước w×h hiện tại
-            g2.drawImage(skinImg, (int)x, (int)y, w, h, null);
+        if (skin != null) {
+            // ảnh đã đúng kích thước w×h hiện tại → blit 1:1 (w/h bị gán thẳng, không qua setWidth → để Java2D kéo giãn)
+            if (skin.getWidth() == w && skin.getHeight() == h) g2.drawImage(skin, (int)x, (int)y, null);
+            else g2.drawImage(skin, (int)x, (int)y, w, h, null);
             return;
         }
         // Fallback: thanh trắng bo tròn
@@ -1,36 +1,114 @@
+/** vật phẩm rơi: pool mảng cố định + sprite dựng sẵn theo loại*/
 package game.play;
 
+import game.AssetLoader;
+import game.logic.CollisionUtil;
 import game.objects.Paddle;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
+/**
+ * Vật phẩm đang rơi giữ trong pool mảng cố định (type/x/y[0..count)), spawn không cấp phát;
+ * đầy (MAX_DROPS) thì bỏ vật phẩm mới. Vật phẩm bị ăn/rơi khỏi màn được xoá bằng nén tại chỗ 1 lượt
+ * (giữ thứ tự rơi → thứ tự áp dụng + replay không đổi).
+ * Vẽ: mỗi loại 1 sprite (vòng tròn + chữ) dựng 1 lần → mỗi frame chỉ drawImage, không new Color/Font.
+ */
 public class DropManager {
-    private final List<Drop> drops = new ArrayList<>();
 
-    public List<Drop> list() { return drops; }
-    public void clear() { drops.clear(); }
+    public static final int MAX_DROPS = 256;
+    public static final int SIZE = 18;
+    private static final double VY = 2.0;
 
-    public void spawn(Pickup.Type t, double x, double y) {
-        if (t != null) drops.add(new Drop(t, x, y));
+    private final Pickup.Type[] type = new Pickup.Type[MAX_DROPS];
+    private final double[] x = new double[MAX_DROPS], y = new double[MAX_DROPS];
+    private int count = 0;
+
+    private static final Pickup.Type[] TYPES = Pickup.Type.values();
+    private static final BufferedImage[] SPRITES = new BufferedImage[TYPES.length];
+
+    public int count() { return count; }
+    public Pickup.Type typeAt(int i) { return type[i]; }
+    public double xAt(int i) { return x[i]; }
+    public double yAt(int i) { return y[i]; }
+
+    public void clear() {
+        Arrays.fill(type, 0, count, null);
+        count = 0;
     }
 
-    /** Cập nhật rơi + ăn vật phẩm */
+    public void spawn(Pickup.Type t, double px, double py) {
+        if (t == null || count == MAX_DROPS) return;
+        type[count] = t; x[count] = px; y[count] = py;
+        count++;
+    }
+
+    /**
+     * Cập nhật rơi + ăn vật phẩm. apply có thể spawn quà mới ngay trong lượt (LAZER → vỡ gạch có quà):
+     * quà mới ghi ở [n, count), không rơi tick này, được dời xuống nối sau phần đã nén.
+     */
     public void update(Paddle paddle, int height, Consumer<Pickup.Type> apply) {
-        for (int i = 0; i < drops.size(); i++) {
-            Drop d = drops.get(i);
-            d.step();
-            if (d.outOfBottom(height)) { drops.remove(i--); continue; }
-            if (d.rect().intersects(paddle.getRect())) {
-                apply.accept(d.type);
-                drops.remove(i--);
+        int half = SIZE / 2, n = count, w = 0;
+        int px = (int) paddle.x, py = (int) paddle.y;
+        for (int i = 0; i < n; i++) {
+            double dy = y[i] + VY;
+            if (dy > height) continue; // rơi khỏi đáy
+            if (CollisionUtil.overlaps((int)(x[i] - half), (int)(dy - half), SIZE, SIZE, px, py, paddle.w, paddle.h)) {
+                apply.accept(type[i]);
+                continue;
             }
+            type[w] = type[i]; x[w] = x[i]; y[w] = dy;
+            w++;
+        }
+        for (int i = n; i < count; i++) { // quà spawn trong lúc apply
+            type[w] = type[i]; x[w] = x[i]; y[w] = y[i];
+            w++;
         }
+        for (int i = w; i < count; i++) type[i] = null;
+        count = w;
     }
 
     public void render(Graphics2D g2) {
-        for (Drop d : drops) d.draw(g2);
+        int half = SIZE / 2;
+        for (int i = 0; i < count; i++) {
+            g2.drawImage(sprite(type[i]), (int)(x[i] - half), (int)(y[i] - half), null);
+        }
+    }
+
+    /** Sprite 1 loại (chỉ EDT vẽ → dựng lười, không cần khoá). */
+    private static BufferedImage sprite(Pickup.Type t) {
+        BufferedImage img = SPRITES[t.ordinal()];
+        if (img == null) SPRITES[t.ordinal()] = img = drawSprite(t);
+        return img;
+    }
+
+    private static BufferedImage drawSprite(Pickup.Type t) {
+        // Chú ý: enum hiện là EXPAND, BONUS_BALLS, LAZER, GUN, HEART
+        Color c = switch (t) {
+            case EXPAND       -> new Color( 50, 200, 255);
+            case BONUS_BALLS  -> new Color(255, 200,  50);
+            case LAZER        -> new Color(120, 255, 120);
+            case GUN          -> new Color(255, 100, 140);
+            case HEART        -> new Color(255,  80,  90);
+        };
+        String s = switch (t) {
+            case EXPAND       -> "E";
+            case BONUS_BALLS  -> "B";
+            case LAZER        -> "L";
+            case GUN          -> "G";
+            case HEART        -> "H";
+        };
+        BufferedImage img = AssetLoader.compatibleImage(SIZE, SIZE, true);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(c);
+        g2.fillOval(0, 0, SIZE, SIZE);
+        g2.setColor(Color.BLACK);
+        g2.setFont(new Font("Monospaced", Font.BOLD, 12));
+        g2.drawString(s, SIZE / 2 - 4, SIZE / 2 + 4); // cùng vị trí chữ như khi vẽ trực tiếp (x-4, y+4)
+        g2.dispose();
+        return img;
     }
 }
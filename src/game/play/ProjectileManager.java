@@ -2,119 +2,145 @@
 package game.play;
 
 import game.LevelManager;
+import game.logic.CollisionUtil;
+import game.logic.GameEventBus;
 import game.objects.Brick;
 import game.objects.Paddle;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.IntConsumer;
 
+/**
+ * Đạn + tia laser giữ trong pool mảng nguyên thuỷ cố định (không cấp phát khi bắn):
+ * - đạn: bx/by/bvy[0..bulletCount), xoá bằng nén tại chỗ 1 lượt (giữ thứ tự bắn → replay không đổi), đầy thì bỏ viên mới.
+ * - laser: ring FIFO (mọi tia sống cùng thời lượng → tia hết hạn luôn ở đầu ring), đầy thì đè tia cũ nhất.
+ * Va chạm đạn: mỗi tick di chuyển cả loạt rồi dò cả loạt qua chỉ mục cột của LevelManager
+ * (tìm nhị phân theo y trong 1–2 cột) thay vì truy vấn lưới cho từng viên.
+ */
 public class ProjectileManager {
 
-    private final List<Bullet> bullets = new ArrayList<>();
-    private final List<LazerRay> lasers = new ArrayList<>();
+    public static final int MAX_BULLETS = 256;
+    public static final int MAX_LASERS = 16;
+    private static final int BULLET_W = 4, BULLET_H = 8; // hộp đạn: (x-2, y-8, 4, 8)
+    private static final long LASER_MS = 120;
+    private static final Color LASER_COLOR = new Color(0, 255, 255, 180);
+
+    private final int[] bx = new int[MAX_BULLETS], by = new int[MAX_BULLETS], bvy = new int[MAX_BULLETS];
+    private int bulletCount = 0;
+
+    private final int[] laserX = new int[MAX_LASERS];
+    private final long[] laserEnd = new long[MAX_LASERS];
+    private int laserHead = 0, laserCount = 0;
 
     private long gunUntil = 0, nextBulletAt = 0;
 
-    public void clear() { bullets.clear(); lasers.clear(); gunUntil = 0; nextBulletAt = 0; }
+    public int bulletCount() { return bulletCount; }
+    public int bulletX(int i) { return bx[i]; }
+    public int bulletY(int i) { return by[i]; }
+    public int laserCount() { return laserCount; }
+
+    public void clear() { bulletCount = 0; laserHead = laserCount = 0; gunUntil = 0; nextBulletAt = 0; }
 
-    /** Bật súng tự bắn (ms) */
-    public void enableGun(long ms) {
-        long now = System.currentTimeMillis();
+    /** Bật súng tự bắn (ms); now = thời gian game */
+    public void enableGun(long now, long ms) {
         gunUntil = Math.max(gunUntil, now) + ms;
         if (nextBulletAt < now) nextBulletAt = now;
     }
 
     /** Bắn tia laser (xuyên – chỉ trừ HP gạch không bất tử) */
-    public void fireLaser(int xCenter, LevelManager levels, DropManager dropMgr, IntConsumer addScore) {
-        int halfW = 4;
-        for (int i = 0; i < levels.bricks.length; i++) {
-            Brick bk = levels.bricks[i];
-            if (bk == null || bk.isUnbreakable()) continue; // laser đi xuyên gạch bất tử
-            boolean sameCol = (xCenter + halfW >= bk.x) && (xCenter - halfW <= bk.x + bk.w);
-            if (!sameCol) continue;
-
-            boolean broken = bk.onHit();
-            if (broken) {
-                if (bk.getPickup() != null) {
-                    dropMgr.spawn(bk.getPickup(), bk.x + bk.w/2.0, bk.y + bk.h/2.0);
-                }
-                levels.bricks[i] = null;
-                addScore.accept(10);
-            } else {
-                addScore.accept(2);
+    public void fireLaser(long now, int xCenter, LevelManager levels, DropManager dropMgr, GameEventBus events) {
+        events.publish(GameEventBus.Type.LASER_FIRED, -1, 0, xCenter, 0);
+        int halfW = 4, x0 = xCenter - halfW, x1 = xCenter + halfW;
+        // chỉ duyệt gạch trong (tối đa 2) cột tia chạm, dưới lên; tia dừng ở mép trên màn
+        // (bàn vô tận giữ sẵn 1 hàng chờ phía trên màn trong chỉ mục cột: chưa thấy thì không bắn vỡ)
+        for (int col = levels.columnAt(x0), last = levels.columnAt(x1); col <= last; col++) {
+            if (!levels.columnOverlaps(col, x0, x1)) continue;
+            for (int k = levels.columnSize(col) - 1; k >= 0; k--) {
+                int i = levels.columnBrick(col, k);
+                Brick b = levels.bricks[i];
+                if (b.y + b.h <= 0) break; // các gạch sau còn cao hơn
+                if (b.isUnbreakable()) continue; // laser đi xuyên gạch bất tử
+                levels.hitBrick(i, dropMgr, events);
             }
         }
-        lasers.add(new LazerRay(xCenter, System.currentTimeMillis() + 120));
+        if (laserCount == MAX_LASERS) { laserHead = (laserHead + 1) % MAX_LASERS; laserCount--; }
+        int slot = (laserHead + laserCount++) % MAX_LASERS;
+        laserX[slot] = xCenter;
+        laserEnd[slot] = now + LASER_MS;
     }
 
     /** Update bullets + lasers; sinh đạn khi đang có súng */
     public void update(long now, Paddle paddle, int height, LevelManager levels,
-                       DropManager dropMgr, IntConsumer addScore)
+                       DropManager dropMgr, GameEventBus events)
     {
         // === Auto fire: 2 viên ở 2 mép paddle ===
         if (now < gunUntil && now >= nextBulletAt) {
             int y0 = (int) paddle.y;
-            int leftX  = (int) Math.round(paddle.x) + 6;                 // mép trái (hơi lệch vào)
-            int rightX = (int) Math.round(paddle.x + paddle.w) - 6;      // mép phải (hơi lệch vào)
-            bullets.add(new Bullet(leftX,  y0, -12));
-            bullets.add(new Bullet(rightX, y0, -12));
+            spawnBullet((int) Math.round(paddle.x) + 6, y0, -12);            // mép trái (hơi lệch vào)
+            spawnBullet((int) Math.round(paddle.x + paddle.w) - 6, y0, -12); // mép phải (hơi lệch vào)
             nextBulletAt = now + 200; // cadence
+            events.publish(GameEventBus.Type.BULLET_FIRED, -1, 0, (int) (paddle.x + paddle.w / 2.0), y0);
         }
 
-        // === Bullets ===
-        for (int i = 0; i < bullets.size(); i++) {
-            Bullet b = bullets.get(i);
-            b.step();
-            if (b.outOfTop()) { bullets.remove(i--); continue; }
-
-            Rectangle r = b.rect();
-            for (int j = 0; j < levels.bricks.length; j++) {
-                Brick bk = levels.bricks[j];
-                if (bk == null) continue;
-
-                if (!r.intersects(bk.getRect())) continue;
-
-                // ĐẠN: KHÔNG xuyên. Gặp gạch là biến mất.
-                if (bk.isUnbreakable()) {
-                    // đụng gạch bất tử -> không damage, đạn biến mất
-                    bullets.remove(i--);
-                    break;
-                } else {
-                    boolean broken = bk.onHit();
-                    if (broken) {
-                        if (bk.getPickup() != null) {
-                            dropMgr.spawn(bk.getPickup(),
-                                    bk.x + bk.w / 2.0,
-                                    bk.y + bk.h / 2.0);
-                        }
-                        levels.bricks[j] = null;
-                        addScore.accept(10);
-                    } else {
-                        addScore.accept(2);
-                    }
-                    bullets.remove(i--); // đạn dừng tại gạch đầu tiên trúng
-                    break;
-                }
+        // === Bullets: di chuyển cả loạt ===
+        int n = bulletCount;
+        for (int i = 0; i < n; i++) by[i] += bvy[i];
+
+        // === Bullets: dò va chạm cả loạt, nén mảng tại chỗ ===
+        int w = 0;
+        for (int i = 0; i < n; i++) {
+            if (by[i] < -20) continue; // ra khỏi mép trên
+            int j = firstHit(levels, bx[i] - 2, by[i] - BULLET_H);
+            if (j >= 0) {
+                // ĐẠN: KHÔNG xuyên. Gặp gạch là biến mất; gạch bất tử không mất máu.
+                if (!levels.bricks[j].isUnbreakable()) levels.hitBrick(j, dropMgr, events);
+                continue;
             }
+            if (w != i) { bx[w] = bx[i]; by[w] = by[i]; bvy[w] = bvy[i]; }
+            w++;
+        }
+        bulletCount = w;
+
+        // === Lasers lifetime: hết hạn theo thứ tự bắn ===
+        while (laserCount > 0 && now >= laserEnd[laserHead]) {
+            laserHead = (laserHead + 1) % MAX_LASERS;
+            laserCount--;
         }
+    }
+
+    private void spawnBullet(int x, int y, int vy) {
+        if (bulletCount == MAX_BULLETS) return;
+        bx[bulletCount] = x; by[bulletCount] = y; bvy[bulletCount] = vy;
+        bulletCount++;
+    }
 
-        // === Lasers lifetime ===
-        for (int i = 0; i < lasers.size(); i++) {
-            if (lasers.get(i).expired(now)) lasers.remove(i--);
+    /**
+     * Gạch trúng hộp đạn (rx, ry, 4×8) có index nhỏ nhất (giống thứ tự truy vấn lưới cũ), -1 nếu không trúng.
+     * Đạn rộng 4 px → chạm tối đa 2 cột; trong mỗi cột chỉ xét các gạch có y nằm trong chiều cao đạn.
+     */
+    private static int firstHit(LevelManager levels, int rx, int ry) {
+        int best = -1;
+        for (int col = levels.columnAt(rx), last = levels.columnAt(rx + BULLET_W); col <= last; col++) {
+            // bỏ gạch nằm hẳn trên mép màn (hàng chờ của bàn vô tận)
+            for (int k = levels.columnFirstBelow(col, Math.max(ry, 0)), size = levels.columnSize(col); k < size; k++) {
+                int j = levels.columnBrick(col, k);
+                Brick bk = levels.bricks[j];
+                if (bk.y >= ry + BULLET_H) break; // các gạch sau còn thấp hơn
+                if (CollisionUtil.overlaps(rx, ry, BULLET_W, BULLET_H, bk.x, bk.y, bk.w, bk.h) && (best < 0 || j < best)) best = j;
+            }
         }
+        return best;
     }
 
     /** Vẽ đạn & tia */
     public void render(Graphics2D g2, Paddle paddle) {
         g2.setColor(Color.YELLOW);
-        for (Bullet b : bullets) g2.fillRect(b.x - 2, b.y - 8, 4, 8);
+        for (int i = 0; i < bulletCount; i++) g2.fillRect(bx[i] - 2, by[i] - BULLET_H, BULLET_W, BULLET_H);
 
-        g2.setColor(new Color(0, 255, 255, 180));
-        for (LazerRay l : lasers) {
-            g2.fillRect(l.x - 2, 0, 4, (int)paddle.y);
-            g2.fillOval(l.x - 4, (int)paddle.y - 6, 8, 8);
+        g2.setColor(LASER_COLOR);
+        for (int k = 0; k < laserCount; k++) {
+            int x = laserX[(laserHead + k) % MAX_LASERS];
+            g2.fillRect(x - 2, 0, 4, (int)paddle.y);
+            g2.fillOval(x - 4, (int)paddle.y - 6, 8, 8);
         }
     }
 }
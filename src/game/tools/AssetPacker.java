@@ -0,0 +1,55 @@
+/** công cụ đóng gói tài nguyên thành 1 file bundle*/
+package game.tools;
+
+import game.AssetBundle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Đóng gói tài nguyên thành bundle cho AssetLoader, chạy từ thư mục gốc project:
+ *   java -cp out/production game.tools.AssetPacker [out=assets.pack] [root...]
+ * Mặc định gói src/resources (ảnh nền, icon, level, nhạc) và tài nguyên nằm cạnh code trong src/ (skin paddle).
+ * Tên trong bundle = đường dẫn tương đối tới root, giống tên AssetLoader dùng.
+ */
+public final class AssetPacker {
+
+    private AssetPacker() {}
+
+    public static void main(String[] args) throws IOException {
+        File out = new File(args.length > 0 ? args[0] : "assets.pack");
+        List<File> roots = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) roots.add(new File(args[i]));
+        if (roots.isEmpty()) { roots.add(new File("src/resources")); roots.add(new File("src")); }
+
+        Set<String> rootPaths = new HashSet<>();
+        for (File r : roots) rootPaths.add(r.getCanonicalPath());
+
+        Map<String, File> files = new LinkedHashMap<>();
+        for (File r : roots) {
+            if (!r.isDirectory()) { System.err.println("[AssetPacker] skip (not a directory): " + r); continue; }
+            walk(r, "", files, rootPaths, true);
+        }
+
+        long t0 = System.nanoTime();
+        AssetBundle.write(files, out);
+        System.out.printf("[AssetPacker] %d entries → %s (%d KB) in %.1f ms%n",
+                files.size(), out, out.length() / 1024, (System.nanoTime() - t0) / 1e6);
+    }
+
+    /** Gom file tài nguyên; không đi vào thư mục là root khác (tránh gói trùng dưới 2 tên). */
+    private static void walk(File dir, String prefix, Map<String, File> files, Set<String> rootPaths, boolean isRoot)
+            throws IOException {
+        if (!isRoot && rootPaths.contains(dir.getCanonicalPath())) return;
+        File[] kids = dir.listFiles();
+        if (kids == null) return;
+        Arrays.sort(kids);
+        for (File k : kids) {
+            String n = k.getName();
+            if (n.startsWith(".")) continue;
+            if (k.isDirectory()) walk(k, prefix + n + "/", files, rootPaths, false);
+            else if (!n.endsWith(".java") && !n.endsWith(".class")) files.putIfAbsent(prefix + n, k);
+        }
+    }
+}
@@ -10,6 +10,8 @@ public final class HudOverlay {
 
     private final Font hudFont = new Font("Monospaced", Font.PLAIN, 14);
     private final Font titleFont = new Font("Monospaced", Font.PLAIN, 18);
+    private final Font debugFont = new Font("Monospaced", Font.PLAIN, 11);
+    private final Color debugBg = new Color(0, 0, 0, 170);
 
     public HudOverlay() {}
 
@@ -33,6 +35,26 @@ public final class HudOverlay {
         g2.setStroke(old);
     }
 
+    /**
+     * Bảng debug (bật/tắt bằng F3 trong GamePanel): dòng FPS + số thực thể, rồi bảng p50/p99/max từng pha
+     * (PhaseProfiler.lines(), cập nhật mỗi giây). Góc trên trái, ngay dưới dòng HUD.
+     */
+    public void renderDebug(Graphics2D g2, String header, String[] phaseLines) {
+        g2.setFont(debugFont);
+        FontMetrics fm = g2.getFontMetrics();
+        int lh = fm.getHeight(), x = 8, y = 30;
+        int w = fm.stringWidth(header);
+        for (String s : phaseLines) w = Math.max(w, fm.stringWidth(s));
+        g2.setColor(debugBg);
+        g2.fillRect(x, y, w + 12, lh * (phaseLines.length + 1) + 8);
+        g2.setColor(Color.GREEN);
+        g2.drawString(header, x + 6, y + 4 + fm.getAscent());
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < phaseLines.length; i++) {
+            g2.drawString(phaseLines[i], x + 6, y + 4 + fm.getAscent() + lh * (i + 1));
+        }
+    }
+
     /**
      * Phủ nền mờ + tiêu đề trạng thái.
      * Nếu state là SETTINGS thì gọi SettingsOverlay.render(...)